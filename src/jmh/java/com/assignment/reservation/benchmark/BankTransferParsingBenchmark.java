@@ -0,0 +1,89 @@
+package com.assignment.reservation.benchmark;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.reservation.dto.BankTransferEvent;
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.kafka.BankTransferEventParser;
+import com.assignment.reservation.kafka.BankTransferListener;
+import com.assignment.reservation.service.ReservationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Parsing of a bank-transfer-payment-update payload, alone and through
+ * {@link BankTransferListener#listen} with a service that ignores the result. {@code parseTree}
+ * is the earlier tree-model parser, kept here as the baseline for the streaming one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BankTransferParsingBenchmark {
+
+    static final String PAYLOAD = """
+            {"paymentId":"PAY-20260201-0001","debtorAccountnumber":"NL91ABNA0417164300",\
+            "amountReceived":"250.00","transactionDescription":"1401541457 RAB12CD3"}""";
+    static final byte[] PAYLOAD_BYTES = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private BankTransferEventParser parser;
+    private BankTransferListener listener;
+    private volatile String lastReservationId;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        parser = new BankTransferEventParser();
+        ReservationService service = new ReservationService(null, null, null, null, null, null, null, null, null, null, null) {
+            @Override
+            public BankTransferOutcome markConfirmedIfAmountMatches(String paymentId, String reservationId,
+                                                                    BigDecimal amountReceived) {
+                lastReservationId = reservationId;
+                return BankTransferOutcome.CONFIRMED;
+            }
+        };
+        listener = new BankTransferListener(service, parser);
+    }
+
+    @Benchmark
+    public BankTransferEvent parse() throws Exception {
+        return parser.parse(PAYLOAD);
+    }
+
+    @Benchmark
+    public BankTransferEvent parseBytes() throws Exception {
+        return parser.parse(PAYLOAD_BYTES);
+    }
+
+    @Benchmark
+    public BankTransferEvent parseTree() throws Exception {
+        JsonNode n = mapper.readTree(PAYLOAD);
+        BigDecimal amount = new BigDecimal(n.path("amountReceived").asText("0"));
+        String description = n.path("transactionDescription").asText("");
+        String[] parts = description.trim().split("\\s+");
+        String reservationId = parts.length > 1 ? parts[1] : null;
+        return new BankTransferEvent(n.path("paymentId").asText(null), reservationId, amount);
+    }
+
+    @Benchmark
+    public void listen() {
+        listener.listen(PAYLOAD);
+    }
+}
@@ -0,0 +1,98 @@
+package com.assignment.reservation.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.assignment.reservation.dto.PaymentStatusResponse;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.assignment.reservation.service.CreditCardClient;
+import com.assignment.reservation.service.RoomInventory;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stubs shared by the benchmarks. They are plain classes and JDK proxies rather than Mockito mocks,
+ * whose invocation recording would dominate the measured time and allocation rate.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    // per-request INFO lines would turn every benchmark into a console benchmark
+    static void quietLogging() {
+        LoggingSystem.get(BenchmarkSupport.class.getClassLoader()).setLogLevel(null, LogLevel.WARN);
+    }
+
+    /** Repository whose {@code save} hands each entity to {@code onSave}; finders return nothing. */
+    static ReservationRepository repository(Consumer<Reservation> onSave) {
+        return (ReservationRepository) Proxy.newProxyInstance(ReservationRepository.class.getClassLoader(),
+                new Class<?>[] {ReservationRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save":
+                            onSave.accept((Reservation) args[0]);
+                            return args[0];
+                        case "saveAll":
+                            return args[0];
+                        case "findById":
+                            return Optional.empty();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "ReservationRepository stub";
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    /** Inventory with a free room for every night; the database round trip is not part of the benchmarks. */
+    static RoomInventory freeInventory() {
+        return new RoomInventory(null, null) {
+            @Override
+            public void claim(Collection<Reservation> stays) {
+            }
+        };
+    }
+
+    /** Runs callbacks inline, without a transaction manager or synchronization. */
+    static TransactionTemplate inlineTransactions() {
+        return new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+                return action.doInTransaction(new SimpleTransactionStatus());
+            }
+        };
+    }
+
+    /** Payment provider that confirms every reference immediately. */
+    static CreditCardClient confirmingCreditCardClient() {
+        Mono<PaymentStatusResponse> confirmed = Mono.just(new PaymentStatusResponse("2026-02-01T00:00:00Z", "CONFIRMED"));
+        return new CreditCardClient(WebClient.builder(), "http://localhost/unused", false, Duration.ofMillis(300),
+                Duration.ofSeconds(30), 10_000, CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                TimeLimiterRegistry.ofDefaults(), new SimpleMeterRegistry()) {
+            @Override
+            public Mono<PaymentStatusResponse> getPaymentStatus(String paymentReference) {
+                return confirmed;
+            }
+        };
+    }
+}
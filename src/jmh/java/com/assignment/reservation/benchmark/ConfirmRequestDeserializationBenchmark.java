@@ -0,0 +1,57 @@
+package com.assignment.reservation.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.assignment.reservation.dto.ConfirmReservationRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Jackson deserialization of the {@code /confirm} request body, with a mapper built the way Spring
+ * configures the one used by the HTTP message converters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfirmRequestDeserializationBenchmark {
+
+    static final byte[] BODY = """
+            {"customerName":"Alice","roomNumber":"101","startDate":"2026-03-10","endDate":"2026-03-12",\
+            "roomSegment":"SMALL","paymentMode":"CREDIT_CARD","paymentReference":"CC-REF-1",\
+            "amount":"250.00","currency":"EUR"}""".getBytes(StandardCharsets.UTF_8);
+
+    private ObjectMapper mapper;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        reader = mapper.readerFor(ConfirmReservationRequest.class);
+    }
+
+    @Benchmark
+    public ConfirmReservationRequest objectMapper() throws Exception {
+        return mapper.readValue(BODY, ConfirmReservationRequest.class);
+    }
+
+    @Benchmark
+    public ConfirmReservationRequest objectReader() throws Exception {
+        return reader.readValue(BODY);
+    }
+}
@@ -0,0 +1,69 @@
+package com.assignment.reservation.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.reservation.dto.ConfirmReservationRequest;
+import com.assignment.reservation.dto.ConfirmReservationResponse;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.service.BlockReservationIdGenerator;
+import com.assignment.reservation.service.ReservationService;
+import com.assignment.reservation.service.RoomAvailabilityIndex;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * {@link ReservationService#confirm} per payment mode with an in-memory repository, an inline
+ * transaction template and a payment provider that answers immediately: the service's own cost
+ * (validation, id, availability index, mapping) without I/O. Each saved stay is released from the
+ * index again, so every invocation books the same room into an empty calendar.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConfirmReservationBenchmark {
+
+    @Param({"CASH", "CREDIT_CARD", "BANK_TRANSFER"})
+    public String paymentMode;
+
+    private ReservationService service;
+    private RoomAvailabilityIndex availabilityIndex;
+    private ConfirmReservationRequest request;
+    private Reservation saved;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        availabilityIndex = new RoomAvailabilityIndex();
+        service = new ReservationService(BenchmarkSupport.repository(r -> saved = r),
+                BenchmarkSupport.confirmingCreditCardClient(), BenchmarkSupport.inlineTransactions(),
+                availabilityIndex, BenchmarkSupport.freeInventory(), event -> { }, new BlockReservationIdGenerator(new AtomicLong()::getAndIncrement, 1000), null, null, new SimpleMeterRegistry(), null);
+        LocalDate start = LocalDate.now().plusDays(10);
+        request = new ConfirmReservationRequest("Alice", "101", start, start.plusDays(2), "SMALL", paymentMode,
+                "CC-REF-1", new BigDecimal("250.00"), "EUR");
+    }
+
+    @Benchmark
+    public ConfirmReservationResponse confirm() {
+        ConfirmReservationResponse resp = service.confirm(request);
+        availabilityIndex.release(saved);
+        return resp;
+    }
+}
@@ -0,0 +1,99 @@
+package com.assignment.reservation.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one per-request INFO line on the calling thread, from 4 threads at once: the previous
+ * setup (synchronous logger, file flushed after every line) against the current one (asynchronous
+ * logger, file flushed per batch). The fork runs with the normal context selector so both kinds of
+ * logger coexist, and with a blocking queue-full policy so the async figure is sustainable
+ * throughput rather than the rate at which lines can be discarded.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Dlog4j2.contextSelector=org.apache.logging.log4j.core.selector.ClassLoaderContextSelector",
+        "-Dlog4j2.asyncQueueFullPolicy=Default"})
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd HH:mm:ss.SSS} %-5level [%t] [%X{traceId},%X{spanId}] %c{1} - %msg%n";
+
+    private Path dir;
+    private LoggerContext context;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+
+    @Setup
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("logging-benchmark");
+        ConfigurationBuilder<BuiltConfiguration> config = ConfigurationBuilderFactory.newConfigurationBuilder();
+        config.setStatusLevel(Level.WARN);
+        config.add(config.newAppender("SyncFile", "File")
+                .addAttribute("fileName", dir.resolve("sync.log").toString())
+                .add(config.newLayout("PatternLayout").addAttribute("pattern", PATTERN)));
+        config.add(config.newAppender("AsyncFile", "RandomAccessFile")
+                .addAttribute("fileName", dir.resolve("async.log").toString())
+                .addAttribute("immediateFlush", false)
+                .add(config.newLayout("PatternLayout").addAttribute("pattern", PATTERN)));
+        config.add(config.newLogger("benchmark.sync", Level.INFO)
+                .add(config.newAppenderRef("SyncFile"))
+                .addAttribute("additivity", false));
+        config.add(config.newAsyncLogger("benchmark.async", Level.INFO)
+                .add(config.newAppenderRef("AsyncFile"))
+                .addAttribute("additivity", false));
+        config.add(config.newRootLogger(Level.WARN));
+        // replaces whatever configuration Log4j picked up on first use
+        Configurator.reconfigure(config.build());
+        context = LoggerContext.getContext(false);
+        syncLogger = context.getLogger("benchmark.sync");
+        asyncLogger = context.getLogger("benchmark.async");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Configurator.shutdown(context);
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public void synchronousFlushPerLine() {
+        syncLogger.info("Reservation {} confirmed (cash)", "R4K2P9QZ");
+    }
+
+    @Benchmark
+    public void asynchronousBatchedFlush() {
+        asyncLogger.info("Reservation {} confirmed (cash)", "R4K2P9QZ");
+    }
+}
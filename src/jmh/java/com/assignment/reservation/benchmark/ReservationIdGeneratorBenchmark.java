@@ -0,0 +1,65 @@
+package com.assignment.reservation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.assignment.reservation.service.BlockReservationIdGenerator;
+import com.assignment.reservation.service.RandomReservationIdGenerator;
+import com.assignment.reservation.service.ReservationIdGenerator;
+
+/**
+ * Block-allocated ids against the original random ids, single-threaded and with 8 threads sharing
+ * one generator. Blocks come from an in-memory counter; in the application one database round trip
+ * is spread over {@code block-size} ids.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationIdGeneratorBenchmark {
+
+    private ReservationIdGenerator block;
+    private ReservationIdGenerator random;
+
+    @Setup
+    public void setUp() {
+        block = new BlockReservationIdGenerator(new AtomicLong()::getAndIncrement, 1000);
+        random = new RandomReservationIdGenerator();
+    }
+
+    @Benchmark
+    public String block() {
+        return block.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String blockContended() {
+        return block.nextId();
+    }
+
+    @Benchmark
+    public String random() {
+        return random.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String randomContended() {
+        return random.nextId();
+    }
+}
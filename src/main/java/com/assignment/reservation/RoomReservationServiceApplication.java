@@ -2,9 +2,11 @@ package com.assignment.reservation;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication //(scanBasePackages= "controller")
 @EnableScheduling
+@EnableCaching
 public class RoomReservationServiceApplication {
 
 	public static void main(String[] args) {
@@ -7,13 +7,17 @@ import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import com.assignment.reservation.exception.IdempotencyConflictException;
 import com.assignment.reservation.exception.InvalidReservationException;
 import com.assignment.reservation.exception.PaymentNotConfirmedException;
+import com.assignment.reservation.exception.PaymentServiceUnavailableException;
 import com.assignment.reservation.exception.ReservationNotFoundException;
+import com.assignment.reservation.exception.RoomUnavailableException;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
@@ -36,13 +40,32 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(PaymentServiceUnavailableException.class)
+    public ResponseEntity<?> handlePaymentServiceUnavailable(PaymentServiceUnavailableException ex) {
+        log.warn("Payment service unavailable: {}", ex.getCause() != null ? ex.getCause().toString() : ex.getMessage());
+        return build(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(RoomUnavailableException.class)
+    public ResponseEntity<?> handleRoomUnavailable(RoomUnavailableException ex) {
+        log.warn("Room unavailable: {}", ex.getMessage());
+        return build(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<?> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        log.warn("Idempotency conflict: {}", ex.getMessage());
+        return build(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
     @ExceptionHandler(ReservationNotFoundException.class)
     public ResponseEntity<?> handleNotFound(ReservationNotFoundException ex) {
         log.info("Reservation not found: {}", ex.getMessage());
         return build(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
-    @ExceptionHandler({MethodArgumentTypeMismatchException.class, ConstraintViolationException.class})
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, ConstraintViolationException.class,
+            MissingServletRequestParameterException.class})
     public ResponseEntity<?> handleBadRequest(Exception ex) {
         log.warn("Bad request: {}", ex.getMessage());
         return build(HttpStatus.BAD_REQUEST, "Invalid request");
@@ -0,0 +1,75 @@
+package com.assignment.reservation.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import com.assignment.reservation.kafka.BankTransferDeadLetterPublisher;
+
+@Configuration
+public class KafkaConfig {
+
+    public static final String BATCH_CONTAINER_FACTORY = "batchKafkaListenerContainerFactory";
+
+    public static final String BANK_TRANSFER_TOPIC = "bank-transfer-payment-update";
+    // bank-transfer events that could not be applied; re-driven through /api/admin/bank-transfers/dead-letters/replay
+    public static final String BANK_TRANSFER_DLT = BANK_TRANSFER_TOPIC + "-dlt";
+
+    // status changes of reservations, keyed by reservation id, published from the outbox
+    public static final String RESERVATION_STATUS_TOPIC = "reservation-status-changed";
+
+    // same settings as Boot's default factory, but hands listeners a whole poll and commits per batch
+    @Bean(BATCH_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchKafkaListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory,
+            DefaultErrorHandler bankTransferBatchErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.setCommonErrorHandler(bankTransferBatchErrorHandler);
+        return factory;
+    }
+
+    /**
+     * Error handling of the batch and parallel bank-transfer listeners. A
+     * {@link org.springframework.kafka.listener.BatchListenerFailedException} commits the records
+     * before its index and retries from the failed record; any other exception retries the whole poll.
+     * Retries back off exponentially with the record mode's {@code app.kafka.bank-transfer.retry.*}
+     * settings. Once they are used up, the failed record (or every record of the poll) goes to the
+     * dead-letter topic before its offset is committed, so nothing is skipped silently.
+     */
+    @Bean
+    public DefaultErrorHandler bankTransferBatchErrorHandler(BankTransferDeadLetterPublisher deadLetters,
+            @Value("${app.kafka.bank-transfer.retry.attempts:4}") int attempts,
+            @Value("${app.kafka.bank-transfer.retry.delay:1000}") long delay,
+            @Value("${app.kafka.bank-transfer.retry.multiplier:2.0}") double multiplier,
+            @Value("${app.kafka.bank-transfer.retry.max-delay:30000}") long maxDelay) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(attempts - 1);
+        backOff.setInitialInterval(delay);
+        backOff.setMultiplier(multiplier);
+        backOff.setMaxInterval(maxDelay);
+        return new DefaultErrorHandler(deadLetters::publish, backOff);
+    }
+
+    @Bean
+    public NewTopic reservationStatusTopic(@Value("${app.outbox.topic-partitions:3}") int partitions) {
+        return TopicBuilder.name(RESERVATION_STATUS_TOPIC).partitions(partitions).build();
+    }
+
+    // in record mode the retry-topic setup of BankTransferListener creates the DLT itself
+    @Bean
+    @ConditionalOnExpression("'${app.kafka.bank-transfer.mode:record}' != 'record'")
+    public NewTopic bankTransferDeadLetterTopic() {
+        return TopicBuilder.name(BANK_TRANSFER_DLT).partitions(1).build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.assignment.reservation.config;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+public final class LogMarkers {
+    /**
+     * One INFO line per reservation or payment event. log4j2-spring.xml samples lines with this
+     * marker above {@code app.logging.event-sampling.rate}; all other lines pass unsampled.
+     */
+    public static final Marker EVENT = MarkerManager.getMarker("EVENT");
+
+    private LogMarkers() {
+    }
+}
@@ -1,12 +1,73 @@
 package com.assignment.reservation.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
 
+/**
+ * HTTP client setup shared by every WebClient built from Boot's {@code WebClient.Builder}
+ * (today only {@code CreditCardClient}). Boot applies the {@link ClientHttpConnector} bean to that
+ * builder, so the pool, event loops and protocol settings below replace the defaults. Pool gauges
+ * (active, idle, pending connections) are published as
+ * {@code reactor.netty.connection.provider.*} metrics.
+ */
 @Configuration
 public class WebClientConfig {
 
-    public WebClient.Builder WebClientBuilder(){
-        return WebClient.builder();
-     }
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider httpConnectionProvider(
+            @Value("${app.http-client.max-connections:200}") int maxConnections,
+            @Value("${app.http-client.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${app.http-client.pending-acquire-timeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${app.http-client.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${app.http-client.max-life-time:5m}") Duration maxLifeTime,
+            @Value("${app.http-client.evict-in-background:30s}") Duration evictInBackground) {
+        return ConnectionProvider.builder("http-client")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true)
+                .build();
+    }
+
+    // dedicated loops so client I/O does not compete with other Netty users; 0 = one per core
+    @Bean(destroyMethod = "dispose")
+    public LoopResources httpClientLoopResources(@Value("${app.http-client.event-loop-threads:0}") int threads) {
+        int workers = threads > 0 ? threads : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        return LoopResources.create("http-client", workers, true);
+    }
+
+    @Bean
+    public ClientHttpConnector httpClientConnector(ConnectionProvider httpConnectionProvider,
+                                                   LoopResources httpClientLoopResources,
+                                                   @Value("${app.http-client.protocols:HTTP11}") HttpProtocol[] protocols,
+                                                   @Value("${app.http-client.connect-timeout:2s}") Duration connectTimeout) {
+        HttpClient httpClient = HttpClient.create(httpConnectionProvider)
+                .runOn(httpClientLoopResources)
+                .protocol(protocols)
+                .keepAlive(true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    @Bean
+    public WebClientCustomizer responseSizeLimitCustomizer(
+            @Value("${app.http-client.max-in-memory-size:256KB}") DataSize maxInMemorySize) {
+        return builder -> builder.codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()));
+    }
 }
@@ -0,0 +1,36 @@
+package com.assignment.reservation.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.assignment.reservation.dto.DeadLetterReplayResponse;
+import com.assignment.reservation.kafka.DeadLetterReplayService;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Validated
+@RestController
+@RequestMapping("/api/admin/bank-transfers")
+public class BankTransferAdminController {
+
+    private final DeadLetterReplayService replayService;
+
+    public BankTransferAdminController(DeadLetterReplayService replayService) {
+        this.replayService = replayService;
+    }
+
+    // re-drives up to 'max' dead-lettered events through the normal bank-transfer listener
+    @PostMapping("/dead-letters/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replay(
+            @RequestParam(defaultValue = "100") @Min(1) @Max(10_000) int max) {
+        log.info("Dead-letter replay requested, max {}", max);
+        return ResponseEntity.ok(replayService.replay(max));
+    }
+}
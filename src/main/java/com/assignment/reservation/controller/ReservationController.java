@@ -1,29 +1,81 @@
 package com.assignment.reservation.controller;
 
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.extern.log4j.Log4j2;
 
+import com.assignment.reservation.exception.InvalidReservationException;
+import com.assignment.reservation.service.IdempotencyStore;
+import com.assignment.reservation.service.ReservationSearchService;
 import com.assignment.reservation.service.ReservationService;
+import com.assignment.reservation.dto.BulkConfirmResult;
 import com.assignment.reservation.dto.ConfirmReservationRequest;
 import com.assignment.reservation.dto.ConfirmReservationResponse;
+import com.assignment.reservation.dto.ReservationExportFormat;
+import com.assignment.reservation.dto.ReservationSearchCriteria;
+import com.assignment.reservation.dto.ReservationSearchResponse;
+import com.assignment.reservation.dto.RoomAvailabilityResponse;
+import com.assignment.reservation.entity.PaymentMode;
 import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Log4j2
+@Validated
 @RestController
 @RequestMapping("/api/reservations")
 public class ReservationController {
     
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final ReservationService service;
-    public ReservationController(ReservationService service) { this.service = service; }
+    private final IdempotencyStore idempotency;
+    private final ReservationSearchService search;
+    private final ObjectReader bulkReader;
+
+    @Value("${app.bulk.max-items:1000}")
+    private int bulkMaxItems;
+
+    public ReservationController(ReservationService service, IdempotencyStore idempotency,
+                                 ReservationSearchService search, ObjectMapper objectMapper) {
+        this.service = service;
+        this.idempotency = idempotency;
+        this.search = search;
+        this.bulkReader = objectMapper.readerFor(ConfirmReservationRequest.class);
+    }
 
     @GetMapping("/")
     public String getControllerRoot()   {
@@ -31,11 +83,96 @@ public class ReservationController {
     }
     
     @PostMapping("/confirm")
-    public ResponseEntity<ConfirmReservationResponse> confirm(@Valid @RequestBody ConfirmReservationRequest req) {
-        ConfirmReservationResponse resp = service.confirm(req);
+    public ResponseEntity<ConfirmReservationResponse> confirm(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody ConfirmReservationRequest req) {
+        ConfirmReservationResponse resp = idempotency.execute(idempotencyKey, req, () -> service.confirm(req));
         return ResponseEntity.ok(resp);
     }
 
+    // same contract as /confirm, but the servlet thread is released while the payment provider answers
+    @PostMapping("/confirm-async")
+    public Mono<ResponseEntity<ConfirmReservationResponse>> confirmAsync(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody ConfirmReservationRequest req) {
+        return idempotency.executeAsync(idempotencyKey, req, () -> service.confirmAsync(req)).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Confirms many reservations in one request. The body is a JSON array or NDJSON (one request per
+     * line) and is read item by item; results are streamed back as NDJSON in the order they are
+     * decided, see {@link ReservationService#confirmAll}.
+     */
+    @PostMapping(value = "/bulk-confirm",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BulkConfirmResult> bulkConfirm(HttpServletRequest request) throws IOException {
+        return service.confirmAll(readBulk(request.getInputStream()));
+    }
+
+    // a root-level array and a sequence of root-level objects are both read element by element
+    private List<ConfirmReservationRequest> readBulk(InputStream body) throws IOException {
+        List<ConfirmReservationRequest> requests = new ArrayList<>();
+        try (MappingIterator<ConfirmReservationRequest> items = bulkReader.readValues(body)) {
+            while (items.hasNextValue()) {
+                if (requests.size() == bulkMaxItems) {
+                    throw new InvalidReservationException("At most " + bulkMaxItems + " reservations per bulk request");
+                }
+                requests.add(items.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidReservationException("Malformed bulk request at item " + requests.size() + ": "
+                    + e.getOriginalMessage());
+        }
+        return requests;
+    }
+
+    // keyset-paged listing: pass the returned nextAfterId as afterId to get the next page
+    @GetMapping
+    public ResponseEntity<ReservationSearchResponse> search(
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) PaymentMode paymentMode,
+            @RequestParam(required = false) String roomNumber,
+            @RequestParam(required = false) RoomSegment roomSegment,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String afterId,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        ReservationSearchCriteria criteria = new ReservationSearchCriteria(status, paymentMode, roomNumber, roomSegment,
+                from, to, includeArchived);
+        return ResponseEntity.ok(search.search(criteria, afterId, limit));
+    }
+
+    // every match, streamed from a database cursor as NDJSON or CSV; written on the request thread,
+    // so a long export is not cut off by the async request timeout
+    @GetMapping("/export")
+    public void export(
+            @RequestParam(required = false) ReservationStatus status,
+            @RequestParam(required = false) PaymentMode paymentMode,
+            @RequestParam(required = false) String roomNumber,
+            @RequestParam(required = false) RoomSegment roomSegment,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "NDJSON") ReservationExportFormat format,
+            HttpServletResponse response) throws IOException {
+        ReservationSearchCriteria criteria = new ReservationSearchCriteria(status, paymentMode, roomNumber, roomSegment,
+                from, to, includeArchived);
+        response.setContentType(format.mediaType().toString());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=reservations." + format.name().toLowerCase());
+        search.export(criteria, format, response.getOutputStream());
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<RoomAvailabilityResponse> availability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam String segment) {
+        return ResponseEntity.ok(service.findAvailableRooms(from, to, segment));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Reservation> get(@PathVariable String id) {
         Reservation r = service.getById(id);
@@ -0,0 +1,33 @@
+package com.assignment.reservation.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.assignment.reservation.entity.RoomSegment;
+import com.assignment.reservation.service.RoomInventory;
+
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@RestController
+@RequestMapping("/api/admin/rooms")
+public class RoomAdminController {
+
+    private final RoomInventory inventory;
+
+    public RoomAdminController(RoomInventory inventory) {
+        this.inventory = inventory;
+    }
+
+    // adds a room to the catalogue, so it is offered by /api/reservations/availability before its first booking
+    @PutMapping("/{roomNumber}")
+    public ResponseEntity<Void> register(@PathVariable String roomNumber, @RequestParam RoomSegment segment) {
+        log.info("Registering room {} ({})", roomNumber, segment);
+        inventory.register(roomNumber, segment);
+        return ResponseEntity.noContent().build();
+    }
+}
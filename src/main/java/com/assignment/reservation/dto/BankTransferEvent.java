@@ -0,0 +1,7 @@
+package com.assignment.reservation.dto;
+
+import java.math.BigDecimal;
+
+// reservationId is null when it could not be read from the transaction description
+public record BankTransferEvent(String paymentId, String reservationId, BigDecimal amountReceived) {
+}
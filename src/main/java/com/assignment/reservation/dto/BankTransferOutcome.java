@@ -0,0 +1,13 @@
+package com.assignment.reservation.dto;
+
+// result of applying one bank-transfer event to its reservation
+public enum BankTransferOutcome {
+    CONFIRMED,
+    // already confirmed or cancelled, or not a bank-transfer reservation: nothing to do (e.g. redelivery)
+    NOT_ELIGIBLE,
+    // recorded, the reservation stays pending until its payments add up to the amount
+    PARTIALLY_PAID,
+    // payment id already in the ledger (redelivered event): nothing to do
+    DUPLICATE,
+    NOT_FOUND
+}
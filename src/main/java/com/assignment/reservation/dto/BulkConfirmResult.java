@@ -0,0 +1,19 @@
+package com.assignment.reservation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a bulk confirm, streamed back as it is decided. {@code index} is the
+ * item's position in the request; results are not in request order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkConfirmResult(int index, String reservationId, String reservationStatus, String error) {
+
+    public static BulkConfirmResult accepted(int index, String reservationId, String reservationStatus) {
+        return new BulkConfirmResult(index, reservationId, reservationStatus, null);
+    }
+
+    public static BulkConfirmResult rejected(int index, String error) {
+        return new BulkConfirmResult(index, null, null, error);
+    }
+}
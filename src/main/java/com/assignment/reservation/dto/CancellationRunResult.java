@@ -0,0 +1,5 @@
+package com.assignment.reservation.dto;
+
+// outcome of one stale bank-transfer sweep
+public record CancellationRunResult(int scanned, int cancelled, long durationMillis) {
+}
@@ -0,0 +1,5 @@
+package com.assignment.reservation.dto;
+
+// replayed: events sent back to the main topic; remaining: dead letters left for a later replay
+public record DeadLetterReplayResponse(int replayed, long remaining) {
+}
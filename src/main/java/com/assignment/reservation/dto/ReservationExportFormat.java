@@ -0,0 +1,18 @@
+package com.assignment.reservation.dto;
+
+import org.springframework.http.MediaType;
+
+public enum ReservationExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    ReservationExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+}
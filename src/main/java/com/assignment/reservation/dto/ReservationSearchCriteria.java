@@ -0,0 +1,20 @@
+package com.assignment.reservation.dto;
+
+import java.time.LocalDate;
+
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+
+// filters of GET /api/reservations and its export, null = any; from/to select stays overlapping that range;
+// includeArchived adds matches from reservations_archive
+public record ReservationSearchCriteria(
+    ReservationStatus status,
+    PaymentMode paymentMode,
+    String roomNumber,
+    RoomSegment roomSegment,
+    LocalDate from,
+    LocalDate to,
+    boolean includeArchived
+) {
+}
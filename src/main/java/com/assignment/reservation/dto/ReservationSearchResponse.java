@@ -0,0 +1,9 @@
+package com.assignment.reservation.dto;
+
+import java.util.List;
+
+import com.assignment.reservation.entity.Reservation;
+
+// one page of a search; pass nextAfterId as afterId for the next page, null on the last page
+public record ReservationSearchResponse(List<Reservation> items, String nextAfterId) {
+}
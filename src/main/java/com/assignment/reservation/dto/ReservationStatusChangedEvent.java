@@ -0,0 +1,9 @@
+package com.assignment.reservation.dto;
+
+import java.time.Instant;
+
+import com.assignment.reservation.entity.ReservationStatus;
+
+// published by ReservationService whenever a reservation is created or changes status
+public record ReservationStatusChangedEvent(String reservationId, ReservationStatus status, Instant occurredAt) {
+}
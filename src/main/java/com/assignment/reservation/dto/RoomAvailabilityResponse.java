@@ -0,0 +1,7 @@
+package com.assignment.reservation.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record RoomAvailabilityResponse(String roomSegment, LocalDate from, LocalDate to, List<String> availableRooms) {
+}
@@ -0,0 +1,57 @@
+package com.assignment.reservation.entity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// a finished reservation moved out of the hot table, read-only from here on
+@Entity
+@Table(name = "reservations_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedReservation {
+    @Id
+    private String id;
+
+    private String customerName;
+    private String roomNumber;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    private RoomSegment roomSegment;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMode paymentMode;
+
+    private String paymentReference;
+
+    @Column(precision = 10, scale = 4)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+
+    private String currency;
+
+    private Long version;
+
+    private Instant archivedAt;
+
+    public Reservation toReservation() {
+        return new Reservation(id, customerName, roomNumber, startDate, endDate, roomSegment, paymentMode,
+                paymentReference, amount, status, currency, version);
+    }
+}
@@ -0,0 +1,59 @@
+package com.assignment.reservation.entity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one applied bank transfer; rows are only ever inserted, so save() persists without a merge select
+@Entity
+@Table(name = "bank_transfer_payments")
+@Data
+@NoArgsConstructor
+public class BankTransferPayment implements Persistable<String> {
+    @Id
+    private String paymentId;
+
+    private String reservationId;
+
+    @Column(precision = 10, scale = 4)
+    private BigDecimal amount;
+
+    private Instant receivedAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public BankTransferPayment(String paymentId, String reservationId, BigDecimal amount, Instant receivedAt) {
+        this.paymentId = paymentId;
+        this.reservationId = reservationId;
+        this.amount = amount;
+        this.receivedAt = receivedAt;
+    }
+
+    @Override
+    public String getId() {
+        return paymentId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.assignment.reservation.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one row per id sequence: the next block of ids not yet handed to any node
+@Entity
+@Table(name = "id_blocks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdBlock {
+    @Id
+    private String name;
+
+    private long nextBlock;
+}
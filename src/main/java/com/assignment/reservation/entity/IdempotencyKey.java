@@ -0,0 +1,32 @@
+package com.assignment.reservation.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one Idempotency-Key: the request it was first used for and, once committed, its response
+@Entity
+@Table(name = "idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    // SHA-256 of the request body, hex encoded
+    private String requestDigest;
+
+    private String reservationId;
+
+    private String reservationStatus;
+
+    private Instant createdAt;
+}
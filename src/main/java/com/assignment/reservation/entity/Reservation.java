@@ -9,6 +9,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -46,4 +47,8 @@ public class Reservation {
 
     private String currency;
 
+    // bumped by every update, including the conditional bulk transitions in ReservationRepository
+    @Version
+    private Long version;
+
 }
@@ -0,0 +1,24 @@
+package com.assignment.reservation.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// a bookable room of the hotel, whether or not it has ever been booked
+@Entity
+@Table(name = "rooms")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Room {
+    @Id
+    private String roomNumber;
+
+    @Enumerated(EnumType.STRING)
+    private RoomSegment roomSegment;
+}
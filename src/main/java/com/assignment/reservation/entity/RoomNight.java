@@ -0,0 +1,56 @@
+package com.assignment.reservation.entity;
+
+import java.time.LocalDate;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one night of a booked stay; rows are only inserted or deleted, so save() persists without a merge select
+@Entity
+@Table(name = "room_nights")
+@IdClass(RoomNightId.class)
+@Data
+@NoArgsConstructor
+public class RoomNight implements Persistable<RoomNightId> {
+    @Id
+    private String roomNumber;
+
+    @Id
+    private LocalDate night;
+
+    private String reservationId;
+
+    @Transient
+    private boolean isNew = true;
+
+    public RoomNight(String roomNumber, LocalDate night, String reservationId) {
+        this.roomNumber = roomNumber;
+        this.night = night;
+        this.reservationId = reservationId;
+    }
+
+    @Override
+    public RoomNightId getId() {
+        return new RoomNightId(roomNumber, night);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
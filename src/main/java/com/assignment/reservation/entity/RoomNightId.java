@@ -0,0 +1,17 @@
+package com.assignment.reservation.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// primary key of RoomNight: a room can be booked once per night
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomNightId implements Serializable {
+    private String roomNumber;
+    private LocalDate night;
+}
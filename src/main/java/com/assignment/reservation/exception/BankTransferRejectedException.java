@@ -0,0 +1,12 @@
+package com.assignment.reservation.exception;
+
+// a bank-transfer event that retrying cannot fix (unreadable payload, missing ids); goes to the DLT
+public class BankTransferRejectedException extends RuntimeException {
+    public BankTransferRejectedException(String message){
+        super(message);
+    }
+
+    public BankTransferRejectedException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
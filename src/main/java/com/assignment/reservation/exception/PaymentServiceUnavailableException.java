@@ -0,0 +1,7 @@
+package com.assignment.reservation.exception;
+
+public class PaymentServiceUnavailableException extends RuntimeException {
+    public PaymentServiceUnavailableException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.assignment.reservation.exception;
+
+public class RoomUnavailableException extends RuntimeException {
+    public RoomUnavailableException(String message){
+        super(message);
+    }
+}
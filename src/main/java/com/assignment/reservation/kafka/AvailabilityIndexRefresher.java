@@ -0,0 +1,62 @@
+package com.assignment.reservation.kafka;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.dto.ReservationStatusChangedEvent;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.assignment.reservation.service.ReservationCacheEvictor;
+import com.assignment.reservation.service.RoomAvailabilityIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Keeps the {@link RoomAvailabilityIndex} of this instance in step with bookings and cancellations
+ * committed by any instance, as relayed from the outbox to {@code reservation-status-changed}, and
+ * drops the changed reservation from this instance's read cache ({@link ReservationCacheEvictor}).
+ *
+ * Every instance has to see every event, so each one consumes in a consumer group of its own and
+ * starts at the latest offset: what was committed before that is in the database load at startup.
+ * The reservation is re-read rather than trusting the event's status, so late or repeated events
+ * cannot undo a newer change. This instance's own events arrive here too and change nothing.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "app.availability.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class AvailabilityIndexRefresher {
+    private final ReservationRepository repo;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final ReservationCacheEvictor cacheEvictor;
+    private final ObjectMapper mapper;
+
+    public AvailabilityIndexRefresher(ReservationRepository repo, RoomAvailabilityIndex availabilityIndex,
+                                      ReservationCacheEvictor cacheEvictor, ObjectMapper mapper) {
+        this.repo = repo;
+        this.availabilityIndex = availabilityIndex;
+        this.cacheEvictor = cacheEvictor;
+        this.mapper = mapper;
+    }
+
+    @KafkaListener(topics = KafkaConfig.RESERVATION_STATUS_TOPIC,
+            groupId = "reservation-availability-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void onStatusChanged(String payload) throws JsonProcessingException {
+        ReservationStatusChangedEvent event = mapper.readValue(payload, ReservationStatusChangedEvent.class);
+        // another instance may have changed it, so the next read goes to the database
+        cacheEvictor.evict(event.reservationId());
+        // archived reservations have ended, there is nothing left to guard
+        repo.findById(event.reservationId()).ifPresent(r -> {
+            if (r.getStatus() == ReservationStatus.CANCELLED) {
+                availabilityIndex.release(r);
+            } else {
+                availabilityIndex.add(r);
+            }
+            log.debug("Availability index refreshed for reservation {} ({})", r.getId(), r.getStatus());
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.assignment.reservation.kafka;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.dto.BankTransferEvent;
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.exception.BankTransferRejectedException;
+import com.assignment.reservation.exception.ReservationNotFoundException;
+import com.assignment.reservation.service.ReservationService;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Batch alternative to {@link BankTransferListener} for settlement bursts: every poll is parsed,
+ * applied in a single transaction and its offsets are committed once the whole batch is done.
+ * Events that cannot be parsed or applied are published to the dead-letter topic.
+ * A batch that keeps failing is retried and then dead-lettered by the container's error handler,
+ * see {@link KafkaConfig#bankTransferBatchErrorHandler}.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "app.kafka.bank-transfer.mode", havingValue = "batch")
+public class BankTransferBatchListener {
+    private final ReservationService reservationService;
+    private final BankTransferEventParser parser;
+    private final BankTransferDeadLetterPublisher deadLetters;
+
+    private record Rejected(ConsumerRecord<String, String> record, Exception reason) {
+    }
+
+    public BankTransferBatchListener(ReservationService reservationService, BankTransferEventParser parser,
+                                     BankTransferDeadLetterPublisher deadLetters) {
+        this.reservationService = reservationService;
+        this.parser = parser;
+        this.deadLetters = deadLetters;
+    }
+
+    @KafkaListener(topics = KafkaConfig.BANK_TRANSFER_TOPIC, groupId = "reservation-service-group",
+            containerFactory = KafkaConfig.BATCH_CONTAINER_FACTORY,
+            properties = "max.poll.records=${app.kafka.bank-transfer.batch.max-poll-records:500}")
+    public void listen(List<ConsumerRecord<String, String>> records) {
+        log.info("Received {} bank-transfer events", records.size());
+        List<BankTransferEvent> events = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, String>> parsed = new ArrayList<>(records.size());
+        List<Rejected> rejected = new ArrayList<>();
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                BankTransferEvent event = parser.parse(record.value());
+                if (event.reservationId() == null) {
+                    rejected.add(new Rejected(record, new BankTransferRejectedException("Could not parse reservationId from event")));
+                } else if (event.paymentId() == null) {
+                    rejected.add(new Rejected(record, new BankTransferRejectedException("Missing paymentId in event")));
+                } else {
+                    events.add(event);
+                    parsed.add(record);
+                }
+            } catch (Exception e) {
+                rejected.add(new Rejected(record, new BankTransferRejectedException("Unreadable bank-transfer event", e)));
+            }
+        }
+        // an exception here fails the batch: KafkaConfig's error handler retries it with back-off and
+        // dead-letters its records once the retries are used up
+        List<BankTransferOutcome> outcomes = reservationService.applyBankTransfers(events);
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) == BankTransferOutcome.NOT_FOUND) {
+                rejected.add(new Rejected(parsed.get(i),
+                        new ReservationNotFoundException("Reservation " + events.get(i).reservationId() + " not found")));
+            }
+        }
+        rejected.forEach(r -> deadLetters.publish(r.record(), r.reason()));
+    }
+}
@@ -0,0 +1,34 @@
+package com.assignment.reservation.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Component;
+
+import com.assignment.reservation.config.KafkaConfig;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Dead-letter publishing for the listeners that commit whole polls ({@link BankTransferBatchListener},
+ * {@link BankTransferParallelListener}). Records get the same headers the record listener's retry
+ * setup writes, so one replay endpoint serves every mode.
+ */
+@Log4j2
+@Component
+public class BankTransferDeadLetterPublisher {
+    private final DeadLetterPublishingRecoverer recoverer;
+
+    public BankTransferDeadLetterPublisher(KafkaTemplate<Object, Object> kafkaTemplate) {
+        // partition -1: let the producer choose, the DLT may have fewer partitions than the source topic
+        this.recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(KafkaConfig.BANK_TRANSFER_DLT, -1));
+    }
+
+    // waits for the broker's ack; a failed publish fails the poll, which is then redelivered
+    public void publish(ConsumerRecord<?, ?> record, Exception reason) {
+        log.warn("Dead-lettering bank-transfer event at offset {}: {}", record.offset(), reason.getMessage());
+        recoverer.accept(record, reason);
+    }
+}
@@ -0,0 +1,108 @@
+package com.assignment.reservation.kafka;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.springframework.stereotype.Component;
+
+import com.assignment.reservation.dto.BankTransferEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads a bank-transfer-payment-update payload. The reservation id is the second
+ * whitespace-separated token of {@code transactionDescription}.
+ *
+ * Payloads are read token by token with a streaming {@link JsonParser}: no tree is built, the
+ * amount is parsed straight from the parser's character buffer and the description is scanned in
+ * place, so the only objects left per message are the event and its two strings. Unknown fields
+ * are skipped.
+ */
+@Component
+public class BankTransferEventParser {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    public BankTransferEvent parse(String payload) throws IOException {
+        try (JsonParser p = FACTORY.createParser(payload)) {
+            return read(p);
+        }
+    }
+
+    public BankTransferEvent parse(byte[] payload) throws IOException {
+        try (JsonParser p = FACTORY.createParser(payload)) {
+            return read(p);
+        }
+    }
+
+    private static BankTransferEvent read(JsonParser p) throws IOException {
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(p, "Bank-transfer event must be a JSON object");
+        }
+        String paymentId = null;
+        String reservationId = null;
+        BigDecimal amount = BigDecimal.ZERO;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            // field names come from the factory's symbol table, so this switch allocates nothing
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value == null) {
+                throw new JsonParseException(p, "Unexpected end of bank-transfer event");
+            }
+            switch (field) {
+                case "paymentId" -> paymentId = value.isScalarValue() ? p.getValueAsString() : skip(p);
+                case "amountReceived" -> amount = readAmount(p, value);
+                case "transactionDescription" -> reservationId = value == JsonToken.VALUE_STRING
+                        ? secondToken(p.getTextCharacters(), p.getTextOffset(), p.getTextLength())
+                        : skip(p);
+                default -> p.skipChildren();
+            }
+        }
+        return new BankTransferEvent(paymentId, reservationId, amount);
+    }
+
+    private static BigDecimal readAmount(JsonParser p, JsonToken value) throws IOException {
+        return switch (value) {
+            case VALUE_STRING -> new BigDecimal(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> p.getDecimalValue();
+            case VALUE_NULL -> BigDecimal.ZERO;
+            default -> throw new JsonParseException(p, "amountReceived is not a number");
+        };
+    }
+
+    // same result as description.trim().split("\\s+")[1], without the regex or the array
+    static String secondToken(char[] buf, int offset, int length) {
+        int end = offset + length;
+        int i = skipSpaces(buf, offset, end);
+        while (i < end && !isSpace(buf[i])) {
+            i++;
+        }
+        int start = skipSpaces(buf, i, end);
+        if (start == end) {
+            return null;
+        }
+        int stop = start;
+        while (stop < end && !isSpace(buf[stop])) {
+            stop++;
+        }
+        return new String(buf, start, stop - start);
+    }
+
+    private static int skipSpaces(char[] buf, int i, int end) {
+        while (i < end && isSpace(buf[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    // the characters matched by \s
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static String skip(JsonParser p) throws IOException {
+        p.skipChildren();
+        return null;
+    }
+}
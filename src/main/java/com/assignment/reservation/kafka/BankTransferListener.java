@@ -1,42 +1,85 @@
 package com.assignment.reservation.kafka;
 
-import java.math.BigDecimal;
-
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.dto.BankTransferEvent;
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.exception.BankTransferRejectedException;
+import com.assignment.reservation.exception.ReservationNotFoundException;
 import com.assignment.reservation.service.ReservationService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.log4j.Log4j2;
 
+/**
+ * Applies bank-transfer events one at a time; a redelivered event is recognised by its payment id
+ * and changes nothing. Failures are not retried in place: the event moves
+ * to a retry topic and is consumed again after a back-off, so the partition keeps flowing. Events
+ * that cannot succeed ({@link BankTransferRejectedException}) skip the retries and go straight to
+ * the dead-letter topic, as do events that are still failing after the last attempt.
+ *
+ * Retried events are applied out of order with respect to later events of the same partition.
+ */
 @Log4j2
 @Component
+@ConditionalOnProperty(name = "app.kafka.bank-transfer.mode", havingValue = "record", matchIfMissing = true)
 public class BankTransferListener {
     private final ReservationService reservationService;
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final BankTransferEventParser parser;
 
-    public BankTransferListener(ReservationService reservationService) {
+    public BankTransferListener(ReservationService reservationService, BankTransferEventParser parser) {
         this.reservationService = reservationService;
+        this.parser = parser;
     }
 
-    @KafkaListener(topics = "bank-transfer-payment-update", groupId = "reservation-service-group")
+    @RetryableTopic(attempts = "${app.kafka.bank-transfer.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${app.kafka.bank-transfer.retry.delay:1000}",
+                    multiplierExpression = "${app.kafka.bank-transfer.retry.multiplier:2.0}",
+                    maxDelayExpression = "${app.kafka.bank-transfer.retry.max-delay:30000}"),
+            exclude = BankTransferRejectedException.class,
+            traversingCauses = "true",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
+    @KafkaListener(topics = KafkaConfig.BANK_TRANSFER_TOPIC, groupId = "reservation-service-group")
     public void listen(String payload){
-        log.info("Received bank-transfer event: {}", payload);
+        log.debug("Received bank-transfer event: {}", payload);
+        BankTransferEvent event = parse(payload);
+        BankTransferOutcome outcome = reservationService.markConfirmedIfAmountMatches(event.paymentId(),
+                event.reservationId(), event.amountReceived());
+        switch (outcome) {
+            // maybe not committed yet, or a replica lagging behind: worth another attempt
+            case NOT_FOUND -> throw new ReservationNotFoundException("Reservation " + event.reservationId() + " not found");
+            default -> log.debug("Bank-transfer event {} applied: {}", event.paymentId(), outcome);
+        }
+    }
+
+    @DltHandler
+    public void deadLetter(String payload,
+                           @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String reason) {
+        log.error("Bank-transfer event dead-lettered ({}): {}", reason, payload);
+    }
+
+    private BankTransferEvent parse(String payload) {
+        BankTransferEvent event;
         try {
-            JsonNode n = mapper.readTree(payload);
-            BigDecimal amount = new BigDecimal(n.path("amountReceived").asText("0"));
-            String description = n.path("transactionDescription").asText("");
-            String[] parts = description.trim().split("\\s+");
-            String reservationId = parts.length > 1 ? parts[1] : null;
-            if (reservationId != null) {
-                reservationService.markConfirmedIfAmountMatches(reservationId, amount);
-            } else {
-                log.warn("Could not parse reservationId from description: {}", description);
-            }
+            event = parser.parse(payload);
         } catch (Exception e) {
-            log.error("Error parsing bank-transfer event", e);
+            throw new BankTransferRejectedException("Unreadable bank-transfer event", e);
+        }
+        if (event.reservationId() == null) {
+            throw new BankTransferRejectedException("Could not parse reservationId from event");
+        }
+        // the payment id is what makes a redelivered event recognisable, see PaymentLedger
+        if (event.paymentId() == null) {
+            throw new BankTransferRejectedException("Missing paymentId in event");
         }
+        return event;
     }
 }
@@ -0,0 +1,152 @@
+package com.assignment.reservation.kafka;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.dto.BankTransferEvent;
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.exception.BankTransferRejectedException;
+import com.assignment.reservation.exception.ReservationNotFoundException;
+import com.assignment.reservation.service.ReservationService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Parallel alternative to {@link BankTransferListener}: the events of a poll are grouped by the
+ * reservation id in their transaction description and the groups are applied concurrently on a
+ * worker pool ({@code app.kafka.bank-transfer.parallel.workers}). Within a group events keep their
+ * offset order, so two transfers for one reservation are never applied out of order, while
+ * transfers for different reservations no longer wait on each other. Throughput is bounded by the
+ * worker pool and connection pool rather than by the partition count.
+ *
+ * Offsets are committed per poll, once every event of it is done. If an event fails unexpectedly,
+ * the later events of its reservation are held back and the poll is reported as failed at that
+ * event: the container commits everything before it and redelivers the rest, which is safe because
+ * redelivered payment ids are recognised by the payment ledger and change nothing. An event that
+ * keeps failing is retried with back-off and then dead-lettered by the container's error handler
+ * ({@link KafkaConfig#bankTransferBatchErrorHandler}), after which the poll moves past it. Unreadable and
+ * unknown-reservation events go to the dead-letter topic, as in batch mode.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "app.kafka.bank-transfer.mode", havingValue = "parallel")
+public class BankTransferParallelListener {
+    private final ReservationService reservationService;
+    private final BankTransferEventParser parser;
+    private final BankTransferDeadLetterPublisher deadLetters;
+    private final ExecutorService workers;
+
+    // one record of the poll; outcome fields are written by a worker and read after all workers are done
+    private static final class Work {
+        final int index;
+        final ConsumerRecord<String, String> record;
+        final BankTransferEvent event;
+        Exception rejection;
+        RuntimeException failure;
+
+        Work(int index, ConsumerRecord<String, String> record, BankTransferEvent event, Exception rejection) {
+            this.index = index;
+            this.record = record;
+            this.event = event;
+            this.rejection = rejection;
+        }
+    }
+
+    public BankTransferParallelListener(ReservationService reservationService, BankTransferEventParser parser,
+                                        BankTransferDeadLetterPublisher deadLetters,
+                                        @Value("${app.kafka.bank-transfer.parallel.workers:8}") int workers) {
+        this.reservationService = reservationService;
+        this.parser = parser;
+        this.deadLetters = deadLetters;
+        this.workers = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("bank-transfer-worker-"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    @KafkaListener(topics = KafkaConfig.BANK_TRANSFER_TOPIC, groupId = "reservation-service-group",
+            containerFactory = KafkaConfig.BATCH_CONTAINER_FACTORY,
+            properties = "max.poll.records=${app.kafka.bank-transfer.parallel.max-poll-records:500}")
+    public void listen(List<ConsumerRecord<String, String>> records) {
+        List<Work> all = new ArrayList<>(records.size());
+        Map<String, List<Work>> byReservation = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            Work work = parse(i, records.get(i));
+            all.add(work);
+            if (work.rejection == null) {
+                byReservation.computeIfAbsent(work.event.reservationId(), id -> new ArrayList<>()).add(work);
+            }
+        }
+        log.info("Received {} bank-transfer events for {} reservations", records.size(), byReservation.size());
+
+        CompletableFuture.allOf(byReservation.values().stream()
+                        .map(group -> CompletableFuture.runAsync(() -> applyInOrder(group), workers))
+                        .toArray(CompletableFuture[]::new))
+                .join();
+
+        Work firstFailed = all.stream().filter(w -> w.failure != null).findFirst().orElse(null);
+        int end = firstFailed == null ? all.size() : firstFailed.index;
+        // rejections after a failure are decided again when the rest of the poll is redelivered
+        for (Work work : all.subList(0, end)) {
+            if (work.rejection != null) {
+                deadLetters.publish(work.record, work.rejection);
+            }
+        }
+        if (firstFailed != null) {
+            throw new BatchListenerFailedException("Bank-transfer event " + firstFailed.event.paymentId() + " failed",
+                    firstFailed.failure, firstFailed.index);
+        }
+    }
+
+    private Work parse(int index, ConsumerRecord<String, String> record) {
+        try {
+            BankTransferEvent event = parser.parse(record.value());
+            if (event.reservationId() == null) {
+                return new Work(index, record, event, new BankTransferRejectedException("Could not parse reservationId from event"));
+            }
+            if (event.paymentId() == null) {
+                return new Work(index, record, event, new BankTransferRejectedException("Missing paymentId in event"));
+            }
+            return new Work(index, record, event, null);
+        } catch (Exception e) {
+            return new Work(index, record, null, new BankTransferRejectedException("Unreadable bank-transfer event", e));
+        }
+    }
+
+    private void applyInOrder(List<Work> group) {
+        for (Work work : group) {
+            BankTransferEvent event = work.event;
+            try {
+                BankTransferOutcome outcome = reservationService.markConfirmedIfAmountMatches(event.paymentId(),
+                        event.reservationId(), event.amountReceived());
+                if (outcome == BankTransferOutcome.NOT_FOUND) {
+                    work.rejection = new ReservationNotFoundException("Reservation " + event.reservationId() + " not found");
+                } else {
+                    log.debug("Bank-transfer event {} applied: {}", event.paymentId(), outcome);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Bank-transfer event {} failed, holding back later events of reservation {}: {}",
+                        event.paymentId(), event.reservationId(), e.toString());
+                work.failure = e;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.assignment.reservation.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.dto.DeadLetterReplayResponse;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Sends dead-lettered bank-transfer events back to the main topic, e.g. once a missing reservation
+ * has been created or a bad payload has been corrected upstream. Progress is tracked by committed
+ * offsets of a dedicated consumer group, so each dead letter is replayed once; events that fail
+ * again land in the DLT as new records. A run stops at the end offsets seen when it started.
+ */
+@Log4j2
+@Component
+public class DeadLetterReplayService {
+    static final String REPLAY_GROUP = "reservation-service-dlt-replay";
+
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Duration pollTimeout;
+    // one replay at a time per instance, so two runs never send the same records
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public DeadLetterReplayService(ConsumerFactory<String, String> consumerFactory,
+                                   KafkaTemplate<String, String> kafkaTemplate,
+                                   @Value("${app.kafka.bank-transfer.replay.poll-timeout:5s}") Duration pollTimeout) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.pollTimeout = pollTimeout;
+    }
+
+    public DeadLetterReplayResponse replay(int maxRecords) {
+        lock.lock();
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer(REPLAY_GROUP, null, null, replayConsumerProperties(maxRecords))) {
+            List<TopicPartition> partitions = consumer.partitionsFor(KafkaConfig.BANK_TRANSFER_DLT).stream()
+                    .map(p -> new TopicPartition(p.topic(), p.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            int replayed = 0;
+            while (replayed < maxRecords && !caughtUp(consumer, endOffsets)) {
+                List<CompletableFuture<?>> sends = new ArrayList<>();
+                Map<TopicPartition, OffsetAndMetadata> done = new HashMap<>();
+                for (ConsumerRecord<String, String> record : consumer.poll(pollTimeout)) {
+                    TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+                    if (replayed == maxRecords || record.offset() >= endOffsets.get(tp)) {
+                        continue;
+                    }
+                    sends.add(kafkaTemplate.send(KafkaConfig.BANK_TRANSFER_TOPIC, record.key(), record.value()));
+                    done.put(tp, new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+                if (sends.isEmpty()) {
+                    break;
+                }
+                // offsets only move once the broker has every replayed event
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get();
+                consumer.commitSync(done);
+            }
+            long remaining = remaining(consumer, partitions);
+            log.info("Replayed {} dead-lettered bank-transfer events, {} left", replayed, remaining);
+            return new DeadLetterReplayResponse(replayed, remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dead-letter replay interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not republish dead-lettered event", e.getCause());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Properties replayConsumerProperties(int maxRecords) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(maxRecords, 500)));
+        return props;
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        return endOffsets.entrySet().stream().allMatch(e -> consumer.position(e.getKey()) >= e.getValue());
+    }
+
+    private static long remaining(Consumer<?, ?> consumer, List<TopicPartition> partitions) {
+        Map<TopicPartition, Long> ends = consumer.endOffsets(partitions);
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(ends.keySet());
+        long remaining = 0;
+        for (Map.Entry<TopicPartition, Long> end : ends.entrySet()) {
+            OffsetAndMetadata c = committed.get(end.getKey());
+            remaining += end.getValue() - (c != null ? c.offset() : consumer.beginningOffsets(List.of(end.getKey())).get(end.getKey()));
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,43 @@
+package com.assignment.reservation.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.assignment.reservation.entity.ArchivedReservation;
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+
+import jakarta.persistence.QueryHint;
+
+public interface ArchivedReservationRepository extends JpaRepository<ArchivedReservation, String> {
+    // same filters and keyset as ReservationRepository.search, over the archive
+    @Query("SELECT r FROM ArchivedReservation r WHERE " + ReservationRepository.SEARCH_FILTER
+            + " AND r.id > :afterId ORDER BY r.id")
+    List<ArchivedReservation> search(@Param("status") ReservationStatus status,
+            @Param("mode") PaymentMode mode,
+            @Param("room") String roomNumber,
+            @Param("segment") RoomSegment segment,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("afterId") String afterId,
+            Limit limit);
+
+    @Query("SELECT r FROM ArchivedReservation r WHERE " + ReservationRepository.SEARCH_FILTER + " ORDER BY r.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<ArchivedReservation> streamSearch(@Param("status") ReservationStatus status,
+            @Param("mode") PaymentMode mode,
+            @Param("room") String roomNumber,
+            @Param("segment") RoomSegment segment,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+}
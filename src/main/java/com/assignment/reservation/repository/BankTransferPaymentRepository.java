@@ -0,0 +1,29 @@
+package com.assignment.reservation.repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.assignment.reservation.entity.BankTransferPayment;
+
+public interface BankTransferPaymentRepository extends JpaRepository<BankTransferPayment, String> {
+    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM BankTransferPayment p WHERE p.reservationId = :reservationId")
+    BigDecimal totalReceived(@Param("reservationId") String reservationId);
+
+    // [reservationId, total] for the reservations that have received anything
+    @Query("SELECT p.reservationId, SUM(p.amount) FROM BankTransferPayment p WHERE p.reservationId IN :reservationIds "
+            + "GROUP BY p.reservationId")
+    List<Object[]> totalsReceived(@Param("reservationIds") Collection<String> reservationIds);
+
+    @Query("SELECT p.paymentId FROM BankTransferPayment p WHERE p.paymentId IN :paymentIds")
+    List<String> findRecordedIds(@Param("paymentIds") Collection<String> paymentIds);
+
+    // keyset page of payment ids, used to fill the in-memory filter at startup
+    @Query("SELECT p.paymentId FROM BankTransferPayment p WHERE p.paymentId > :afterId ORDER BY p.paymentId")
+    List<String> findIdsAfter(@Param("afterId") String afterId, Limit limit);
+}
@@ -0,0 +1,23 @@
+package com.assignment.reservation.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.assignment.reservation.entity.IdBlock;
+
+public interface IdBlockRepository extends JpaRepository<IdBlock, String> {
+    // row lock held until commit, so concurrent nodes are serialised on the sequence row
+    @Modifying
+    @Query("UPDATE IdBlock b SET b.nextBlock = b.nextBlock + 1 WHERE b.name = :name")
+    int increment(@Param("name") String name);
+
+    @Query("SELECT b.nextBlock FROM IdBlock b WHERE b.name = :name")
+    long currentBlock(@Param("name") String name);
+
+    // first allocation of a sequence, fails on duplicate name if another node got there first
+    @Modifying
+    @Query(value = "INSERT INTO id_blocks (name, next_block) VALUES (:name, :nextBlock)", nativeQuery = true)
+    int insert(@Param("name") String name, @Param("nextBlock") long nextBlock);
+}
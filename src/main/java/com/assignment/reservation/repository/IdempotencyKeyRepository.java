@@ -0,0 +1,46 @@
+package com.assignment.reservation.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.assignment.reservation.entity.IdempotencyKey;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    // plain insert (save() would merge over another instance's row), fails on duplicate key
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_digest, created_at) "
+            + "VALUES (:key, :digest, :createdAt)", nativeQuery = true)
+    int insert(@Param("key") String key,
+            @Param("digest") String digest,
+            @Param("createdAt") Instant createdAt);
+
+    // reuses a key whose entry has expired, 0 rows if it is still live
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.requestDigest = :digest, k.createdAt = :createdAt, "
+            + "k.reservationId = NULL, k.reservationStatus = NULL "
+            + "WHERE k.key = :key AND k.createdAt < :expiredBefore")
+    int takeOverExpired(@Param("key") String key,
+            @Param("digest") String digest,
+            @Param("createdAt") Instant createdAt,
+            @Param("expiredBefore") Instant expiredBefore);
+
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.reservationId = :reservationId, k.reservationStatus = :status "
+            + "WHERE k.key = :key")
+    int complete(@Param("key") String key,
+            @Param("reservationId") String reservationId,
+            @Param("status") String status);
+
+    // drops a key whose request failed; a completed one is kept
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.key = :key AND k.reservationId IS NULL")
+    int release(@Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :expiredBefore")
+    int deleteExpired(@Param("expiredBefore") Instant expiredBefore);
+}
@@ -0,0 +1,13 @@
+package com.assignment.reservation.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.assignment.reservation.entity.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // oldest first, so events of a reservation are published in the order they were written
+    List<OutboxEvent> findByOrderByIdAsc(Limit limit);
+}
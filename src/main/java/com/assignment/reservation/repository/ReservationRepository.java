@@ -1,13 +1,96 @@
 package com.assignment.reservation.repository;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.assignment.reservation.entity.PaymentMode;
 import com.assignment.reservation.entity.Reservation;
 import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, String> {
-    List<Reservation> findByStatusAndPaymentModeAndStartDateBefore(ReservationStatus status,
-            com.assignment.reservation.entity.PaymentMode mode,
-            LocalDate date);
+    // optional filters of GET /api/reservations, a null parameter matches everything; stays overlapping from..to
+    String SEARCH_FILTER = "(:status IS NULL OR r.status = :status)"
+            + " AND (:mode IS NULL OR r.paymentMode = :mode)"
+            + " AND (:room IS NULL OR r.roomNumber = :room)"
+            + " AND (:segment IS NULL OR r.roomSegment = :segment)"
+            + " AND (:from IS NULL OR r.endDate >= :from)"
+            + " AND (:to IS NULL OR r.startDate <= :to)";
+
+    // keyset page: next 'limit' matches with an id greater than afterId
+    List<Reservation> findByStatusAndPaymentModeAndStartDateBeforeAndIdGreaterThanOrderByIdAsc(ReservationStatus status,
+            PaymentMode mode,
+            LocalDate date,
+            String afterId,
+            Limit limit);
+
+    // keyset page of the search, by id
+    @Query("SELECT r FROM Reservation r WHERE " + SEARCH_FILTER + " AND r.id > :afterId ORDER BY r.id")
+    List<Reservation> search(@Param("status") ReservationStatus status,
+            @Param("mode") PaymentMode mode,
+            @Param("room") String roomNumber,
+            @Param("segment") RoomSegment segment,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("afterId") String afterId,
+            Limit limit);
+
+    // whole search result as a cursor, fetched in chunks; callers detach rows as they go
+    @Query("SELECT r FROM Reservation r WHERE " + SEARCH_FILTER + " ORDER BY r.id")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Reservation> streamSearch(@Param("status") ReservationStatus status,
+            @Param("mode") PaymentMode mode,
+            @Param("room") String roomNumber,
+            @Param("segment") RoomSegment segment,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    // compare-and-set on the status: 0 rows if the reservation has left 'from' in the meantime
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :to, r.version = r.version + 1 WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") String id,
+            @Param("from") ReservationStatus from,
+            @Param("to") ReservationStatus to);
+
+    // optimistic check for a change recorded next to the row (a partial payment), so concurrent writers conflict
+    @Modifying
+    @Query("UPDATE Reservation r SET r.version = r.version + 1 WHERE r.id = :id AND r.version = :version")
+    int bumpVersion(@Param("id") String id, @Param("version") Long version);
+
+    // conditional bulk transition, rows that have left 'from' in the meantime are skipped
+    @Modifying
+    @Query("UPDATE Reservation r SET r.status = :to, r.version = r.version + 1 WHERE r.id IN :ids AND r.status = :from")
+    int updateStatus(@Param("ids") Collection<String> ids,
+            @Param("from") ReservationStatus from,
+            @Param("to") ReservationStatus to);
+
+    // active and future stays, used to rebuild the room availability index
+    Stream<Reservation> streamByStatusNotAndEndDateGreaterThanEqual(ReservationStatus status, LocalDate date);
+
+    // oldest finished stays first; archived rows are deleted, so the next call picks up where this one ended
+    @Query("SELECT r.id FROM Reservation r WHERE r.endDate < :before AND r.status IN :statuses ORDER BY r.endDate, r.id")
+    List<String> findIdsToArchive(@Param("before") LocalDate before,
+            @Param("statuses") Collection<ReservationStatus> statuses,
+            Limit limit);
+
+    // copies rows as they are, in the same transaction as the delete that follows
+    @Modifying
+    @Query(value = "INSERT INTO reservations_archive (id, customer_name, room_number, start_date, end_date, room_segment, "
+            + "payment_mode, payment_reference, amount, status, currency, version, archived_at) "
+            + "SELECT id, customer_name, room_number, start_date, end_date, room_segment, payment_mode, payment_reference, "
+            + "amount, status, currency, version, :archivedAt FROM reservations WHERE id IN (:ids)", nativeQuery = true)
+    int copyToArchive(@Param("ids") Collection<String> ids, @Param("archivedAt") Instant archivedAt);
 }
@@ -0,0 +1,18 @@
+package com.assignment.reservation.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.assignment.reservation.entity.RoomNight;
+import com.assignment.reservation.entity.RoomNightId;
+
+public interface RoomNightRepository extends JpaRepository<RoomNight, RoomNightId> {
+    // frees the rooms of cancelled or archived reservations
+    @Modifying
+    @Query("DELETE FROM RoomNight n WHERE n.reservationId IN :reservationIds")
+    int deleteByReservationIds(@Param("reservationIds") Collection<String> reservationIds);
+}
@@ -0,0 +1,15 @@
+package com.assignment.reservation.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.assignment.reservation.entity.Room;
+import com.assignment.reservation.entity.RoomSegment;
+
+public interface RoomRepository extends JpaRepository<Room, String> {
+    @Query("SELECT r.roomNumber FROM Room r WHERE r.roomSegment = :segment")
+    List<String> findRoomNumbers(@Param("segment") RoomSegment segment);
+}
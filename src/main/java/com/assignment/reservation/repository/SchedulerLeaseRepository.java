@@ -0,0 +1,29 @@
+package com.assignment.reservation.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.assignment.reservation.entity.SchedulerLease;
+
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+    // renews our own lease or takes over an expired one, 0 rows if another node holds it
+    @Modifying
+    @Query("UPDATE SchedulerLease l SET l.owner = :owner, l.expiresAt = :expiresAt "
+            + "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int renewOrTakeOver(@Param("name") String name,
+            @Param("owner") String owner,
+            @Param("now") Instant now,
+            @Param("expiresAt") Instant expiresAt);
+
+    // plain insert (save() would merge over a concurrent node's row), fails on duplicate name
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, owner, expires_at) VALUES (:name, :owner, :expiresAt)",
+            nativeQuery = true)
+    int insert(@Param("name") String name,
+            @Param("owner") String owner,
+            @Param("expiresAt") Instant expiresAt);
+}
@@ -0,0 +1,43 @@
+package com.assignment.reservation.scheduler;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.assignment.reservation.service.ReservationArchiver;
+
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class ArchiveScheduler {
+    static final String JOB_NAME = "reservation-archive";
+
+    private final ReservationArchiver archiver;
+    private final JobLock jobLock;
+
+    @Value("${app.archive.days-after-end:1}")
+    private int daysAfterEnd;
+
+    @Value("${app.archive.batch-size:1000}")
+    private int batchSize;
+
+    public ArchiveScheduler(ReservationArchiver archiver, JobLock jobLock) {
+        this.archiver = archiver;
+        this.jobLock = jobLock;
+    }
+
+    // nightly, outside check-in/check-out hours
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!jobLock.tryAcquire(JOB_NAME)) {
+            log.debug("Skipping archive job, another instance holds the lease");
+            return;
+        }
+        archiver.archiveEndedBefore(LocalDate.now().minusDays(daysAfterEnd), batchSize);
+    }
+}
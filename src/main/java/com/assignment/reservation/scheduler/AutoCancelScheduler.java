@@ -14,19 +14,28 @@ import lombok.extern.log4j.Log4j2;
 @Component
 public class AutoCancelScheduler {
      private final ReservationService reservationService;
+    private final JobLock jobLock;
 
     @Value("${app.cancellation.days-before:2}")
     private int daysBefore;
 
-    public AutoCancelScheduler(ReservationService reservationService) {
+    @Value("${app.cancellation.chunk-size:500}")
+    private int chunkSize;
+
+    public AutoCancelScheduler(ReservationService reservationService, JobLock jobLock) {
         this.reservationService = reservationService;
+        this.jobLock = jobLock;
     }
 
     // run every hour (for dev). Change to daily cron in prod.
     @Scheduled(fixedRate = 60 * 60 * 1000)
     public void cancelStale() {
+        if (!jobLock.tryAcquire("auto-cancel")) {
+            log.debug("Skipping cancellation job, another instance holds the lease");
+            return;
+        }
         LocalDate cutoff = LocalDate.now().plusDays(daysBefore);
         log.debug("Running cancellation job with cutoff {}", cutoff);
-        reservationService.cancelStaleBankTransferReservations(cutoff);
+        reservationService.cancelStaleBankTransferReservations(cutoff, chunkSize);
     }
 }
@@ -0,0 +1,78 @@
+package com.assignment.reservation.scheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.repository.SchedulerLeaseRepository;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Leader election through a lease row per job in the application's own database. The holder
+ * extends its lease on every run; another node only takes over once the lease has expired, so the
+ * lease duration should be longer than the job interval.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "app.scheduler.lock", havingValue = "database", matchIfMissing = true)
+public class DatabaseLeaseJobLock implements JobLock {
+    private final SchedulerLeaseRepository repo;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Duration leaseDuration;
+    private final Clock clock;
+
+    @Autowired
+    public DatabaseLeaseJobLock(SchedulerLeaseRepository repo, TransactionTemplate transactionTemplate,
+                                @Value("${app.scheduler.node-id:}") String nodeId,
+                                @Value("${app.scheduler.lease-duration:PT65M}") Duration leaseDuration) {
+        this(repo, transactionTemplate, nodeId, leaseDuration, Clock.systemUTC());
+    }
+
+    DatabaseLeaseJobLock(SchedulerLeaseRepository repo, TransactionTemplate transactionTemplate,
+                         String nodeId, Duration leaseDuration, Clock clock) {
+        this.repo = repo;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.leaseDuration = leaseDuration;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean tryAcquire(String jobName) {
+        return tryAcquire(jobName, leaseDuration);
+    }
+
+    @Override
+    public boolean tryAcquire(String jobName, Duration leaseDuration) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(leaseDuration);
+
+        Integer renewed = transactionTemplate.execute(status -> repo.renewOrTakeOver(jobName, nodeId, now, expiresAt));
+        if (renewed != null && renewed > 0) {
+            log.debug("Node {} holds lease for {} until {}", nodeId, jobName, expiresAt);
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> repo.insert(jobName, nodeId, expiresAt));
+            log.info("Node {} acquired new lease for {}", nodeId, jobName);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Lease for {} held by another node", jobName);
+            return false;
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+}
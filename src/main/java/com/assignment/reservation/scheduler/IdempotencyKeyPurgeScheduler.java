@@ -0,0 +1,33 @@
+package com.assignment.reservation.scheduler;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.assignment.reservation.service.IdempotencyStore;
+
+import lombok.extern.log4j.Log4j2;
+
+@Log4j2
+@Component
+public class IdempotencyKeyPurgeScheduler {
+    static final String JOB_NAME = "idempotency-key-purge";
+
+    private final IdempotencyStore idempotency;
+    private final JobLock jobLock;
+
+    public IdempotencyKeyPurgeScheduler(IdempotencyStore idempotency, JobLock jobLock) {
+        this.idempotency = idempotency;
+        this.jobLock = jobLock;
+    }
+
+    // expired keys are ignored anyway; this only keeps the table small
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 15 * * * *}")
+    public void purge() {
+        if (!jobLock.tryAcquire(JOB_NAME)) {
+            log.debug("Skipping idempotency key purge, another instance holds the lease");
+            return;
+        }
+        int purged = idempotency.purgeExpired();
+        log.info("Purged {} expired idempotency keys", purged);
+    }
+}
@@ -0,0 +1,16 @@
+package com.assignment.reservation.scheduler;
+
+import java.time.Duration;
+
+/**
+ * Decides which instance runs a scheduled job when the service is scaled out. Jobs call
+ * {@link #tryAcquire} at the start of every run and skip the run when it returns false.
+ * Selected with {@code app.scheduler.lock}: {@code database} (default) or {@code none}.
+ */
+public interface JobLock {
+
+    boolean tryAcquire(String jobName);
+
+    /** As {@link #tryAcquire(String)}, with a lease sized for the job's own interval. */
+    boolean tryAcquire(String jobName, Duration leaseDuration);
+}
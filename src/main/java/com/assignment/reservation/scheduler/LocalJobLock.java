@@ -0,0 +1,22 @@
+package com.assignment.reservation.scheduler;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// single-instance deployments: every run goes ahead
+@Component
+@ConditionalOnProperty(name = "app.scheduler.lock", havingValue = "none")
+public class LocalJobLock implements JobLock {
+
+    @Override
+    public boolean tryAcquire(String jobName) {
+        return true;
+    }
+
+    @Override
+    public boolean tryAcquire(String jobName, Duration leaseDuration) {
+        return true;
+    }
+}
@@ -0,0 +1,94 @@
+package com.assignment.reservation.scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.entity.OutboxEvent;
+import com.assignment.reservation.repository.OutboxEventRepository;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Publishes outbox rows to {@code reservation-status-changed}, oldest first and keyed by
+ * reservation id, so all events of a reservation land on one partition in order. A batch is
+ * deleted only after the broker has acknowledged all of it: delivery is at least once, and a
+ * consumer may see an event again after a failed or interrupted run.
+ *
+ * Only the lease holder relays, so two instances never interleave the events of one reservation.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    static final String JOB_NAME = "outbox-relay";
+
+    private final OutboxEventRepository repo;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLock jobLock;
+
+    @Value("${app.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.relay.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @Value("${app.outbox.relay.lease-duration:PT30S}")
+    private Duration leaseDuration;
+
+    public OutboxRelay(OutboxEventRepository repo, KafkaTemplate<String, String> kafkaTemplate,
+                       TransactionTemplate transactionTemplate, JobLock jobLock) {
+        this.repo = repo;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobLock = jobLock;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:1000}")
+    public void relay() {
+        if (!jobLock.tryAcquire(JOB_NAME, leaseDuration)) {
+            return;
+        }
+        int published = 0;
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = repo.findByOrderByIdAsc(Limit.of(batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                publish(batch);
+                List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+                transactionTemplate.executeWithoutResult(status -> repo.deleteAllByIdInBatch(ids));
+                published += batch.size();
+            } while (batch.size() == batchSize);
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Outbox relay stopped after {} events, retrying on next run: {}", published, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (published > 0) {
+            log.info("Published {} reservation status events", published);
+        }
+    }
+
+    private void publish(List<OutboxEvent> batch) throws ExecutionException, TimeoutException, InterruptedException {
+        CompletableFuture<?>[] sends = batch.stream()
+                .map(e -> kafkaTemplate.send(KafkaConfig.RESERVATION_STATUS_TOPIC, e.getAggregateId(), e.getPayload()))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sends).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
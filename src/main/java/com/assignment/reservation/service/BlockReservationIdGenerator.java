@@ -0,0 +1,86 @@
+package com.assignment.reservation.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collision-free ids from a block-allocated sequence (hi/lo). Each node reserves a block of
+ * {@code block-size} sequence numbers through {@link IdBlockAllocator} and hands them out with an
+ * atomic increment, so the database is hit once per block and the hot path takes no lock.
+ *
+ * The 7 characters only hold 36^7 (about 2^36) values, too few for a node id + timestamp +
+ * counter layout, hence the shared sequence. Sequence numbers are passed through a bijection
+ * modulo 36^7 before base36 encoding, so consecutive reservations do not get adjacent ids.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reservation-id.strategy", havingValue = "block", matchIfMissing = true)
+public class BlockReservationIdGenerator implements ReservationIdGenerator {
+    static final long SPACE = 78_364_164_096L; // 36^7
+    // odd and not a multiple of 3, so coprime to 36^7; SPACE * MULTIPLIER still fits in a long
+    private static final long MULTIPLIER = 16_777_619L;
+    private static final long OFFSET = 31_415_926_535L;
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final IdBlockAllocator allocator;
+    private final int blockSize;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block current = new Block(0, new AtomicLong());
+
+    private record Block(long end, AtomicLong next) {
+    }
+
+    public BlockReservationIdGenerator(IdBlockAllocator allocator,
+                                       @Value("${app.reservation-id.block-size:1000}") int blockSize) {
+        this.allocator = allocator;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String nextId() {
+        return encode(scramble(nextSequence()));
+    }
+
+    long nextSequence() {
+        while (true) {
+            Block block = current;
+            long seq = block.next().getAndIncrement();
+            if (seq < block.end()) {
+                return seq;
+            }
+            refill(block);
+        }
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current == exhausted) {
+                long start = allocator.nextBlock() * blockSize;
+                if (start + blockSize > SPACE) {
+                    throw new IllegalStateException("Reservation id space exhausted");
+                }
+                current = new Block(start + blockSize, new AtomicLong(start));
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    static long scramble(long seq) {
+        return (seq * MULTIPLIER + OFFSET) % SPACE;
+    }
+
+    static String encode(long value) {
+        char[] id = new char[8];
+        id[0] = 'R';
+        for (int i = 7; i > 0; i--) {
+            id[i] = DIGITS[(int) (value % 36)];
+            value /= 36;
+        }
+        return new String(id);
+    }
+}
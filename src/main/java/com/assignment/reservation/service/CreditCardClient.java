@@ -1,35 +1,221 @@
 package com.assignment.reservation.service;
 
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.assignment.reservation.dto.PaymentStatusRequest;
 import com.assignment.reservation.dto.PaymentStatusResponse;
+import com.assignment.reservation.exception.PaymentNotConfirmedException;
+import com.assignment.reservation.exception.PaymentServiceUnavailableException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.log4j.Log4j2;
 import reactor.core.publisher.Mono;
 
+/**
+ * Client for the credit-card payment service. Every provider request is bounded by a time limiter
+ * and a bulkhead (both named {@value #RESILIENCE_NAME}, configured under {@code resilience4j.*});
+ * the logical lookup is guarded by a circuit breaker that fails fast while the provider is
+ * unhealthy. With hedging enabled a second request is sent if the first has not answered within
+ * {@code app.credit-card.hedge.delay} (set it to the provider's observed p95) and the first answer
+ * wins.
+ *
+ * Concurrent lookups for the same payment reference share one in-flight provider call, and final
+ * answers ({@code CONFIRMED}/{@code REJECTED}) are kept for {@code app.credit-card.status-cache.ttl}
+ * so client retries do not reach the provider again.
+ *
+ * Timeouts, bulkhead rejections, an open circuit, connection errors and 5xx/429 answers surface as
+ * {@link PaymentServiceUnavailableException}. Any other 4xx means the provider refused this payment
+ * reference and surfaces as {@link PaymentNotConfirmedException}; the circuit breaker ignores those
+ * ({@link CreditCardClientErrorPredicate}). A missing or blank reference is not sent to the provider
+ * and surfaces as {@link PaymentNotConfirmedException} too. Anything else is passed on unchanged.
+ */
 @Log4j2
 @Component
 public class CreditCardClient {
+    static final String RESILIENCE_NAME = "credit-card";
+
     private final WebClient webClient;
     private final String endpoint;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final TimeLimiter timeLimiter;
+    private final boolean hedgeEnabled;
+    private final Duration hedgeDelay;
+    private final Counter hedgedRequests;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Mono<PaymentStatusResponse>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Timer> lookupTimers = new ConcurrentHashMap<>();
+    private final Cache<String, PaymentStatusResponse> terminalStatuses;
 
     public CreditCardClient(WebClient.Builder builder,
-                            @Value("${app.credit-card.payment-service-url}") String endpoint) {
+                            @Value("${app.credit-card.payment-service-url}") String endpoint,
+                            @Value("${app.credit-card.hedge.enabled:false}") boolean hedgeEnabled,
+                            @Value("${app.credit-card.hedge.delay:300ms}") Duration hedgeDelay,
+                            @Value("${app.credit-card.status-cache.ttl:30s}") Duration statusCacheTtl,
+                            @Value("${app.credit-card.status-cache.max-size:10000}") long statusCacheMaxSize,
+                            CircuitBreakerRegistry circuitBreakers,
+                            BulkheadRegistry bulkheads,
+                            TimeLimiterRegistry timeLimiters,
+                            MeterRegistry meterRegistry) {
         this.webClient = builder.build();
         this.endpoint = endpoint;
+        this.circuitBreaker = circuitBreakers.circuitBreaker(RESILIENCE_NAME);
+        this.bulkhead = bulkheads.bulkhead(RESILIENCE_NAME);
+        this.timeLimiter = timeLimiters.timeLimiter(RESILIENCE_NAME);
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgeDelay = hedgeDelay;
+        this.meterRegistry = meterRegistry;
+        this.hedgedRequests = Counter.builder("credit.card.hedged.requests")
+                .description("Second requests sent because the first exceeded the hedge delay")
+                .register(meterRegistry);
+        this.terminalStatuses = Caffeine.newBuilder()
+                .expireAfterWrite(statusCacheTtl)
+                .maximumSize(statusCacheMaxSize)
+                .build();
     }
 
     public Mono<PaymentStatusResponse> getPaymentStatus(String paymentReference) {
-        log.debug("Calling credit-card service for ref={}", paymentReference);
+        // neither the status cache nor the in-flight map accepts a null key
+        if (paymentReference == null || paymentReference.isBlank()) {
+            return Mono.error(new PaymentNotConfirmedException("Credit card payment not confirmed: no payment reference"));
+        }
+        PaymentStatusResponse known = terminalStatuses.getIfPresent(paymentReference);
+        if (known != null) {
+            log.debug("Credit-card status for ref={} served from cache", paymentReference);
+            return Mono.just(known);
+        }
+        return inFlight.computeIfAbsent(paymentReference, this::sharedLookup);
+    }
+
+    // every caller arriving while this lookup runs subscribes to the same cached result
+    private Mono<PaymentStatusResponse> sharedLookup(String paymentReference) {
+        return lookup(paymentReference)
+                .doOnNext(resp -> {
+                    if ("CONFIRMED".equalsIgnoreCase(resp.status()) || "REJECTED".equalsIgnoreCase(resp.status())) {
+                        terminalStatuses.put(paymentReference, resp);
+                    }
+                })
+                .doFinally(signal -> inFlight.remove(paymentReference))
+                .cache();
+    }
+
+    /**
+     * Timed as {@code credit.card.lookup}, tagged with the provider's answer (CONFIRMED, REJECTED,
+     * OTHER or EMPTY) or the failure type.
+     * Covers hedging and the circuit breaker; single HTTP requests are timed separately by the
+     * WebClient observation ({@code http.client.requests}).
+     */
+    private Mono<PaymentStatusResponse> lookup(String paymentReference) {
+        return Mono.defer(() -> {
+            log.debug("Calling credit-card service for ref={}", paymentReference);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Mono<PaymentStatusResponse> lookup = hedgeEnabled ? hedged(paymentReference) : attempt(paymentReference);
+            return lookup
+                    .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                    .doOnSuccess(resp -> sample.stop(lookupTimer(statusOutcome(resp))))
+                    .doOnError(e -> {
+                        sample.stop(lookupTimer(e.getClass().getSimpleName()));
+                        log.warn("Credit-card call failed for ref {}: {}", paymentReference, e.toString());
+                    })
+                    .onErrorMap(CreditCardClient::translate);
+        });
+    }
+
+    private static Throwable translate(Throwable e) {
+        if (CreditCardClientErrorPredicate.isClientError(e)) {
+            return new PaymentNotConfirmedException("Credit card payment not confirmed: provider answered "
+                    + CreditCardClientErrorPredicate.responseException(e).getStatusCode().value());
+        }
+        if (isUnavailable(e)) {
+            return new PaymentServiceUnavailableException("Credit card payment service unavailable", e);
+        }
+        return e;
+    }
+
+    // walks suppressed exceptions and causes, as a failed hedged lookup wraps both attempts' errors
+    private static boolean isUnavailable(Throwable e) {
+        if (e == null) {
+            return false;
+        }
+        if (e instanceof TimeoutException || e instanceof BulkheadFullException
+                || e instanceof CallNotPermittedException || e instanceof WebClientRequestException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError()
+                    || response.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        for (Throwable suppressed : e.getSuppressed()) {
+            if (isUnavailable(suppressed)) {
+                return true;
+            }
+        }
+        return e.getCause() != e && isUnavailable(e.getCause());
+    }
+
+    private Timer lookupTimer(String outcome) {
+        return lookupTimers.computeIfAbsent(outcome, tag -> Timer.builder("credit.card.lookup")
+                .description("Payment status lookups at the credit-card provider, including hedging")
+                .tag("outcome", tag)
+                .register(meterRegistry));
+    }
+
+    // the provider's status is free text, so only the two final answers become tag values
+    private static String statusOutcome(PaymentStatusResponse resp) {
+        if (resp == null) {
+            return "EMPTY";
+        }
+        if ("CONFIRMED".equalsIgnoreCase(resp.status())) {
+            return "CONFIRMED";
+        }
+        if ("REJECTED".equalsIgnoreCase(resp.status())) {
+            return "REJECTED";
+        }
+        return "OTHER";
+    }
+
+    private Mono<PaymentStatusResponse> hedged(String paymentReference) {
+        Mono<PaymentStatusResponse> hedge = Mono.delay(hedgeDelay)
+                .doOnNext(t -> hedgedRequests.increment())
+                .then(attempt(paymentReference));
+        return Mono.firstWithValue(attempt(paymentReference), hedge);
+    }
+
+    // one provider request: fails with BulkheadFullException when too many are in flight
+    private Mono<PaymentStatusResponse> attempt(String paymentReference) {
         PaymentStatusRequest req = new PaymentStatusRequest(paymentReference);
         return webClient.post()
                 .uri(endpoint)
                 .bodyValue(req)
                 .retrieve()
                 .bodyToMono(PaymentStatusResponse.class)
-                .doOnError(e -> log.warn("Credit-card call failed for ref {}: {}", paymentReference, e.getMessage()));
+                .transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
     }
 }
@@ -0,0 +1,43 @@
+package com.assignment.reservation.service;
+
+import java.util.function.Predicate;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Matches 4xx answers from the credit-card provider (except 429). They mean the provider rejected
+ * this particular request, not that it is unhealthy, so the {@code credit-card} circuit breaker is
+ * configured to ignore them ({@code ignore-exception-predicate}).
+ */
+public class CreditCardClientErrorPredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable e) {
+        return isClientError(e);
+    }
+
+    static boolean isClientError(Throwable e) {
+        WebClientResponseException response = responseException(e);
+        return response != null
+                && response.getStatusCode().is4xxClientError()
+                && !response.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // a hedged lookup in which both requests failed surfaces their errors as suppressed exceptions
+    static WebClientResponseException responseException(Throwable e) {
+        if (e == null) {
+            return null;
+        }
+        if (e instanceof WebClientResponseException response) {
+            return response;
+        }
+        for (Throwable suppressed : e.getSuppressed()) {
+            WebClientResponseException response = responseException(suppressed);
+            if (response != null) {
+                return response;
+            }
+        }
+        return e.getCause() == e ? null : responseException(e.getCause());
+    }
+}
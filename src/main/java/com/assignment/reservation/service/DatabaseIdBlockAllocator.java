@@ -0,0 +1,49 @@
+package com.assignment.reservation.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.repository.IdBlockRepository;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Allocates id blocks from the {@code id_blocks} table. Each allocation runs in its own short
+ * transaction, so a block stays taken even if the reservation that triggered it rolls back.
+ */
+@Log4j2
+@Component
+public class DatabaseIdBlockAllocator implements IdBlockAllocator {
+    static final String SEQUENCE = "reservation";
+
+    private final IdBlockRepository repo;
+    private final TransactionTemplate requiresNew;
+
+    public DatabaseIdBlockAllocator(IdBlockRepository repo, PlatformTransactionManager transactionManager) {
+        this.repo = repo;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public long nextBlock() {
+        while (true) {
+            Long block = requiresNew.execute(status ->
+                    repo.increment(SEQUENCE) > 0 ? repo.currentBlock(SEQUENCE) - 1 : null);
+            if (block != null) {
+                log.debug("Allocated id block {}", block);
+                return block;
+            }
+            try {
+                requiresNew.executeWithoutResult(status -> repo.insert(SEQUENCE, 1));
+                log.info("Started id sequence {}", SEQUENCE);
+                return 0;
+            } catch (DataIntegrityViolationException e) {
+                // another node created the row in the meantime, take the next block from it
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.assignment.reservation.service;
+
+/** Hands out block numbers of a shared sequence; no two callers, on any node, get the same block. */
+@FunctionalInterface
+public interface IdBlockAllocator {
+    long nextBlock();
+}
@@ -0,0 +1,250 @@
+package com.assignment.reservation.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.dto.ConfirmReservationRequest;
+import com.assignment.reservation.dto.ConfirmReservationResponse;
+import com.assignment.reservation.entity.IdempotencyKey;
+import com.assignment.reservation.exception.IdempotencyConflictException;
+import com.assignment.reservation.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Remembers the outcome of {@code POST /confirm} per {@code Idempotency-Key} header. The first
+ * request with a key runs; concurrent duplicates wait for its result and later retries get the
+ * stored response, until the entry expires. A failed attempt is forgotten so the client can retry
+ * with the same key. A key reused for a different booking is detected by a SHA-256 digest of the
+ * request body.
+ *
+ * Keys are shared by all instances through the {@code idempotency_keys} table: inserting the row
+ * decides which instance runs the request, and duplicates arriving at another instance poll the
+ * row until the response is stored. Duplicates on the same instance wait on an in-memory future
+ * instead, without touching the database.
+ */
+@Log4j2
+@Component
+public class IdempotencyStore {
+    private final IdempotencyKeyRepository repo;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Entry> entries;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+
+    private record Entry(String requestDigest, CompletableFuture<ConfirmReservationResponse> response) {
+    }
+
+    public IdempotencyStore(IdempotencyKeyRepository repo, TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${app.idempotency.max-size:100000}") long maxSize,
+                            @Value("${app.idempotency.wait-timeout:30s}") Duration waitTimeout,
+                            @Value("${app.idempotency.poll-interval:100ms}") Duration pollInterval) {
+        this.repo = repo;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    public ConfirmReservationResponse execute(String key, ConfirmReservationRequest req,
+                                              Supplier<ConfirmReservationResponse> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        Entry fresh = new Entry(digest(req), new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, fresh);
+        if (existing != null) {
+            return await(key, existing, fresh.requestDigest());
+        }
+        try {
+            ConfirmReservationResponse resp = claim(key, fresh.requestDigest()).orElse(null);
+            if (resp == null) {
+                resp = runClaimed(key, action);
+            }
+            fresh.response().complete(resp);
+            return resp;
+        } catch (Throwable e) {
+            forget(key, fresh, e);
+            throw e;
+        }
+    }
+
+    public Mono<ConfirmReservationResponse> executeAsync(String key, ConfirmReservationRequest req,
+                                                         Supplier<Mono<ConfirmReservationResponse>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        return Mono.defer(() -> {
+            Entry fresh = new Entry(digest(req), new CompletableFuture<>());
+            Entry existing = entries.asMap().putIfAbsent(key, fresh);
+            if (existing != null) {
+                checkSameRequest(key, existing.requestDigest(), fresh.requestDigest());
+                log.debug("Idempotency key {} seen before, sharing its result", key);
+                return Mono.fromFuture(existing.response(), true).timeout(waitTimeout,
+                        Mono.error(() -> stillRunning(key)));
+            }
+            // claiming may poll the database, so it stays off the event loop
+            return Mono.fromCallable(() -> claim(key, fresh.requestDigest()))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(stored -> stored.map(Mono::just).orElseGet(() -> action.get()
+                            .publishOn(Schedulers.boundedElastic())
+                            .doOnSuccess(resp -> record(key, resp))
+                            .doOnError(e -> release(key))
+                            .doOnCancel(() -> release(key))))
+                    .doOnSuccess(resp -> fresh.response().complete(resp))
+                    .doOnError(e -> forget(key, fresh, e))
+                    .doOnCancel(() -> forget(key, fresh, new IdempotencyConflictException("Request cancelled")));
+        });
+    }
+
+    /** Deletes keys older than the TTL; returns how many were removed. */
+    public int purgeExpired() {
+        Integer purged = transactionTemplate.execute(status -> repo.deleteExpired(Instant.now().minus(ttl)));
+        return purged == null ? 0 : purged;
+    }
+
+    private ConfirmReservationResponse runClaimed(String key, Supplier<ConfirmReservationResponse> action) {
+        ConfirmReservationResponse resp;
+        try {
+            resp = action.get();
+        } catch (Throwable e) {
+            release(key);
+            throw e;
+        }
+        record(key, resp);
+        return resp;
+    }
+
+    /**
+     * Takes the key for this instance (empty result) or returns the response another instance
+     * stored for it, waiting up to {@code waitTimeout} while that request is still running.
+     */
+    private Optional<ConfirmReservationResponse> claim(String key, String digest) {
+        Instant deadline = Instant.now().plus(waitTimeout);
+        while (true) {
+            Instant now = Instant.now();
+            try {
+                transactionTemplate.execute(status -> repo.insert(key, digest, now));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Idempotency key {} already known", key);
+            }
+            Integer takenOver = transactionTemplate.execute(status -> repo.takeOverExpired(key, digest, now, now.minus(ttl)));
+            if (takenOver != null && takenOver > 0) {
+                return Optional.empty();
+            }
+            IdempotencyKey row = repo.findById(key).orElse(null);
+            if (row == null) {
+                // the other attempt failed and released the key, so try to claim it again
+                continue;
+            }
+            checkSameRequest(key, row.getRequestDigest(), digest);
+            if (row.getReservationId() != null) {
+                log.debug("Idempotency key {} answered by another instance", key);
+                return Optional.of(new ConfirmReservationResponse(row.getReservationId(), row.getReservationStatus()));
+            }
+            if (Instant.now().isAfter(deadline)) {
+                throw stillRunning(key);
+            }
+            sleep(key);
+        }
+    }
+
+    private void record(String key, ConfirmReservationResponse resp) {
+        try {
+            transactionTemplate.execute(status -> repo.complete(key, resp.reservationId(), resp.reservationStatus()));
+        } catch (DataAccessException e) {
+            // the reservation is committed: the key stays claimed, so retries get 409 until it expires
+            log.warn("Could not store response for idempotency key {}: {}", key, e.toString());
+        }
+    }
+
+    private void release(String key) {
+        try {
+            transactionTemplate.execute(status -> repo.release(key));
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {}: {}", key, e.toString());
+        }
+    }
+
+    private ConfirmReservationResponse await(String key, Entry existing, String digest) {
+        checkSameRequest(key, existing.requestDigest(), digest);
+        log.debug("Idempotency key {} seen before, sharing its result", key);
+        try {
+            return existing.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw stillRunning(key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning(key);
+        }
+    }
+
+    private void checkSameRequest(String key, String storedDigest, String digest) {
+        if (!storedDigest.equals(digest)) {
+            throw new IdempotencyConflictException("Idempotency-Key " + key + " was already used for a different request");
+        }
+    }
+
+    String digest(ConfirmReservationRequest req) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(req);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot digest confirm request", e);
+        }
+    }
+
+    private void sleep(String key) {
+        try {
+            Thread.sleep(pollInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw stillRunning(key);
+        }
+    }
+
+    private void forget(String key, Entry entry, Throwable failure) {
+        entries.asMap().remove(key, entry);
+        entry.response().completeExceptionally(failure);
+    }
+
+    private IdempotencyConflictException stillRunning(String key) {
+        return new IdempotencyConflictException("Request with Idempotency-Key " + key + " is still being processed");
+    }
+}
@@ -0,0 +1,37 @@
+package com.assignment.reservation.service;
+
+import java.time.Instant;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.assignment.reservation.dto.ReservationStatusChangedEvent;
+import com.assignment.reservation.entity.OutboxEvent;
+import com.assignment.reservation.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Records every {@link ReservationStatusChangedEvent} in the {@code outbox_events} table inside the
+ * transaction that changed the reservation, so the event exists if and only if the change was
+ * committed. The outbox relay publishes the rows to Kafka afterwards.
+ */
+@Component
+public class OutboxWriter {
+    public static final String STATUS_CHANGED = "ReservationStatusChanged";
+
+    private final OutboxEventRepository repo;
+    private final ObjectMapper mapper;
+
+    public OutboxWriter(OutboxEventRepository repo, ObjectMapper mapper) {
+        this.repo = repo;
+        this.mapper = mapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onStatusChanged(ReservationStatusChangedEvent event) throws JsonProcessingException {
+        repo.save(new OutboxEvent(null, event.reservationId(), STATUS_CHANGED, mapper.writeValueAsString(event),
+                Instant.now()));
+    }
+}
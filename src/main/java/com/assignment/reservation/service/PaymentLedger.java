@@ -0,0 +1,180 @@
+package com.assignment.reservation.service;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.assignment.reservation.config.LogMarkers;
+import com.assignment.reservation.repository.BankTransferPaymentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Applied bank transfers, one row per payment id, and the total each reservation has received.
+ *
+ * A redelivered event is recognised by its payment id. Ids the in-memory {@link PaymentIdFilter}
+ * has never seen are new without a query, which covers almost every event; only a "maybe" costs a
+ * primary-key lookup. The filter only knows the ids loaded at startup and those this instance has
+ * committed since, so the primary key stays the final word: the insert runs under a savepoint, and
+ * an id recorded by another instance in the meantime (a redelivery after a rebalance) comes back
+ * as a duplicate without spoiling the caller's transaction.
+ *
+ * All methods join the caller's transaction.
+ */
+@Log4j2
+@Service
+public class PaymentLedger {
+    private static final String INSERT = "INSERT INTO bank_transfer_payments "
+            + "(payment_id, reservation_id, amount, received_at) VALUES (?, ?, ?, ?)";
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final BankTransferPaymentRepository repo;
+    private final EntityManager entityManager;
+    private final PaymentIdFilter filter;
+    private final Counter duplicates;
+    private final Counter filterFalsePositives;
+
+    @Value("${app.payment-ledger.load-page-size:10000}")
+    private int loadPageSize = 10_000;
+
+    public PaymentLedger(BankTransferPaymentRepository repo, EntityManager entityManager, MeterRegistry meterRegistry,
+                         @Value("${app.payment-ledger.filter.expected-payments:1000000}") long expectedPayments,
+                         @Value("${app.payment-ledger.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repo = repo;
+        this.entityManager = entityManager;
+        this.filter = new PaymentIdFilter(expectedPayments, falsePositiveRate);
+        this.duplicates = meterRegistry.counter("payment.ledger.duplicates");
+        this.filterFalsePositives = meterRegistry.counter("payment.ledger.filter.false.positives");
+    }
+
+    // before the listener containers start, so replays right after startup are caught by the filter
+    @PostConstruct
+    void loadFilter() {
+        long loaded = 0;
+        String afterId = "";
+        List<String> page;
+        do {
+            page = repo.findIdsAfter(afterId, Limit.of(loadPageSize));
+            page.forEach(filter::add);
+            loaded += page.size();
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1);
+            }
+        } while (page.size() == loadPageSize);
+        log.info("Payment ledger filter loaded with {} payment ids ({} bits, {} hashes)", loaded,
+                filter.bitSize(), filter.hashCount());
+    }
+
+    /**
+     * Records the payment unless its id is already in the ledger.
+     *
+     * @return false for a payment that was recorded before, e.g. a redelivered event
+     */
+    public boolean record(String paymentId, String reservationId, BigDecimal amount) {
+        if (filter.mightContain(paymentId)) {
+            if (repo.existsById(paymentId)) {
+                duplicates.increment();
+                log.info(LogMarkers.EVENT, "Payment {} for reservation {} already recorded, ignoring", paymentId, reservationId);
+                return false;
+            }
+            filterFalsePositives.increment();
+        }
+        if (!append(paymentId, reservationId, amount)) {
+            log.info(LogMarkers.EVENT, "Payment {} for reservation {} recorded by another instance, ignoring", paymentId, reservationId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records a payment the caller has already checked with {@link #recordedAmong}.
+     *
+     * @return false if another instance recorded the id after that check
+     */
+    public boolean append(String paymentId, String reservationId, BigDecimal amount) {
+        if (!insert(paymentId, reservationId, amount)) {
+            duplicates.increment();
+            filter.add(paymentId);
+            return false;
+        }
+        // a rolled-back insert must not make the id look recorded
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    filter.add(paymentId);
+                }
+            });
+        } else {
+            filter.add(paymentId);
+        }
+        return true;
+    }
+
+    // a failed statement aborts a PostgreSQL transaction, so a duplicate key only rolls back to the savepoint
+    private boolean insert(String paymentId, String reservationId, BigDecimal amount) {
+        return entityManager.unwrap(Session.class).doReturningWork(con -> {
+            Savepoint savepoint = con.setSavepoint();
+            try (PreparedStatement insert = con.prepareStatement(INSERT)) {
+                insert.setString(1, paymentId);
+                insert.setString(2, reservationId);
+                insert.setBigDecimal(3, amount);
+                insert.setObject(4, OffsetDateTime.now(ZoneOffset.UTC));
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState())) {
+                    throw e;
+                }
+                con.rollback(savepoint);
+                return false;
+            }
+            con.releaseSavepoint(savepoint);
+            return true;
+        });
+    }
+
+    /** The ids of {@code paymentIds} that are already in the ledger, with one query at most. */
+    public Set<String> recordedAmong(Collection<String> paymentIds) {
+        List<String> maybe = paymentIds.stream().filter(filter::mightContain).toList();
+        if (maybe.isEmpty()) {
+            return new HashSet<>();
+        }
+        Set<String> recorded = new HashSet<>(repo.findRecordedIds(maybe));
+        duplicates.increment(recorded.size());
+        filterFalsePositives.increment(maybe.size() - recorded.size());
+        return recorded;
+    }
+
+    public BigDecimal totalReceived(String reservationId) {
+        return repo.totalReceived(reservationId);
+    }
+
+    /** Totals per reservation; reservations that have received nothing are left out. */
+    public Map<String, BigDecimal> totalsReceived(Collection<String> reservationIds) {
+        Map<String, BigDecimal> totals = new HashMap<>();
+        if (!reservationIds.isEmpty()) {
+            repo.totalsReceived(reservationIds).forEach(row -> totals.put((String) row[0], (BigDecimal) row[1]));
+        }
+        return totals;
+    }
+}
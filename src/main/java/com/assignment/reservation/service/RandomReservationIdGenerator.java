@@ -0,0 +1,16 @@
+package com.assignment.reservation.service;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// the original random ids; no collision check, so only for a single short-lived instance (demos, tests)
+@Component
+@ConditionalOnProperty(name = "app.reservation-id.strategy", havingValue = "random")
+public class RandomReservationIdGenerator implements ReservationIdGenerator {
+
+    @Override
+    public String nextId() {
+        return "R" + RandomStringUtils.randomAlphanumeric(7).toUpperCase();
+    }
+}
@@ -0,0 +1,67 @@
+package com.assignment.reservation.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.repository.ReservationRepository;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Moves finished reservations (confirmed or cancelled, stay ended) from {@code reservations} to
+ * {@code reservations_archive}. Each batch is copied with one INSERT ... SELECT and deleted in the
+ * same short transaction, so a reservation is always in exactly one of the two tables.
+ * {@link ReservationService#getById} falls back to the archive.
+ */
+@Log4j2
+@Service
+public class ReservationArchiver {
+    // states nothing moves a reservation out of; a PENDING_PAYMENT row waits for the cancellation sweep
+    static final Set<ReservationStatus> FINAL_STATUSES = EnumSet.of(ReservationStatus.CONFIRMED, ReservationStatus.CANCELLED);
+
+    private final ReservationRepository repo;
+    private final RoomInventory inventory;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservationArchiver(ReservationRepository repo, RoomInventory inventory, TransactionTemplate transactionTemplate) {
+        this.repo = repo;
+        this.inventory = inventory;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /** @return the number of reservations archived */
+    public int archiveEndedBefore(LocalDate cutoff, int batchSize) {
+        log.info("Archiving reservations that ended before {}", cutoff);
+        int archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff, batchSize));
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        log.info("Archived {} reservations", archived);
+        return archived;
+    }
+
+    private int archiveBatch(LocalDate cutoff, int batchSize) {
+        List<String> ids = repo.findIdsToArchive(cutoff, FINAL_STATUSES, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copied = repo.copyToArchive(ids, Instant.now());
+        repo.deleteAllByIdInBatch(ids);
+        // the stays are over, their nights no longer need guarding
+        inventory.release(ids);
+        log.debug("Archived batch of {} reservations up to end date cutoff {}", copied, cutoff);
+        return ids.size();
+    }
+}
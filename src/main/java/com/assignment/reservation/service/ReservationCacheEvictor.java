@@ -0,0 +1,34 @@
+package com.assignment.reservation.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.assignment.reservation.dto.ReservationStatusChangedEvent;
+
+/**
+ * Drops a reservation from the read-through cache behind {@link ReservationService#getById} once
+ * its status change is committed, so the next read loads the new status from the database.
+ * Changes committed by other instances arrive through
+ * {@link com.assignment.reservation.kafka.AvailabilityIndexRefresher}, which evicts them here too.
+ */
+@Component
+public class ReservationCacheEvictor {
+    public static final String CACHE_NAME = "reservations";
+
+    private final Cache cache;
+
+    public ReservationCacheEvictor(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(ReservationStatusChangedEvent event) {
+        evict(event.reservationId());
+    }
+
+    public void evict(String reservationId) {
+        cache.evict(reservationId);
+    }
+}
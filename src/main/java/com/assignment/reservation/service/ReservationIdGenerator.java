@@ -0,0 +1,9 @@
+package com.assignment.reservation.service;
+
+/**
+ * Source of reservation ids: "R" followed by 7 upper-case alphanumeric characters. Implementations
+ * are selected with {@code app.reservation-id.strategy} and must be safe to call from many threads.
+ */
+public interface ReservationIdGenerator {
+    String nextId();
+}
@@ -0,0 +1,206 @@
+package com.assignment.reservation.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.dto.ReservationExportFormat;
+import com.assignment.reservation.dto.ReservationSearchCriteria;
+import com.assignment.reservation.dto.ReservationSearchResponse;
+import com.assignment.reservation.entity.ArchivedReservation;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.exception.InvalidReservationException;
+import com.assignment.reservation.repository.ArchivedReservationRepository;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Listing of reservations for operations staff: keyset-paged search and a full export. The export
+ * reads the result through a database cursor and writes each row out before the next one is read,
+ * so memory stays flat however many reservations match. With {@code includeArchived} both tables
+ * are read in id order and merged; an id is only ever in one of them, so the keyset stays valid.
+ */
+@Log4j2
+@Service
+public class ReservationSearchService {
+    static final String CSV_HEADER = "id,customerName,roomNumber,startDate,endDate,roomSegment,paymentMode,"
+            + "paymentReference,amount,currency,status";
+
+    private final ReservationRepository repo;
+    private final ArchivedReservationRepository archive;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter ndjsonWriter;
+
+    public ReservationSearchService(ReservationRepository repo, ArchivedReservationRepository archive,
+                                    EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper) {
+        this.repo = repo;
+        this.archive = archive;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ndjsonWriter = objectMapper.writerFor(Reservation.class)
+                .withRootValueSeparator("\n")
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    public ReservationSearchResponse search(ReservationSearchCriteria c, String afterId, int limit) {
+        checkRange(c);
+        String after = afterId == null ? "" : afterId;
+        List<Reservation> items = repo.search(c.status(), c.paymentMode(), c.roomNumber(), c.roomSegment(),
+                c.from(), c.to(), after, Limit.of(limit));
+        if (c.includeArchived()) {
+            Stream<Reservation> archived = archive.search(c.status(), c.paymentMode(), c.roomNumber(), c.roomSegment(),
+                    c.from(), c.to(), after, Limit.of(limit)).stream().map(ArchivedReservation::toReservation);
+            items = Stream.concat(items.stream(), archived)
+                    .sorted(Comparator.comparing(Reservation::getId))
+                    .limit(limit)
+                    .toList();
+        }
+        String next = items.size() < limit ? null : items.get(items.size() - 1).getId();
+        return new ReservationSearchResponse(items, next);
+    }
+
+    /**
+     * Writes every matching reservation, in id order, to {@code out}. Runs in a read-only
+     * transaction, which PostgreSQL needs to honour the cursor's fetch size.
+     *
+     * @return the number of reservations written
+     */
+    public long export(ReservationSearchCriteria c, ReservationExportFormat format, OutputStream out) {
+        checkRange(c);
+        Long written = readOnlyTransaction.execute(status -> {
+            try (Stream<Reservation> rows = rows(c)) {
+                return format == ReservationExportFormat.CSV ? writeCsv(rows, out) : writeNdjson(rows, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} reservations as {}", written, format);
+        return written;
+    }
+
+    private Stream<Reservation> rows(ReservationSearchCriteria c) {
+        Stream<Reservation> live = repo.streamSearch(c.status(), c.paymentMode(), c.roomNumber(), c.roomSegment(),
+                c.from(), c.to());
+        if (!c.includeArchived()) {
+            return live;
+        }
+        Stream<Reservation> archived = archive.streamSearch(c.status(), c.paymentMode(), c.roomNumber(), c.roomSegment(),
+                c.from(), c.to()).map(a -> {
+                    entityManager.detach(a);
+                    return a.toReservation();
+                });
+        return mergeById(live, archived);
+    }
+
+    // both inputs are ordered by id; one row ahead of each is held while the other is consumed
+    static Stream<Reservation> mergeById(Stream<Reservation> first, Stream<Reservation> second) {
+        Iterator<Reservation> a = first.iterator();
+        Iterator<Reservation> b = second.iterator();
+        Iterator<Reservation> merged = new Iterator<>() {
+            private Reservation nextA = a.hasNext() ? a.next() : null;
+            private Reservation nextB = b.hasNext() ? b.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextA != null || nextB != null;
+            }
+
+            @Override
+            public Reservation next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Reservation out;
+                if (nextB == null || (nextA != null && nextA.getId().compareTo(nextB.getId()) < 0)) {
+                    out = nextA;
+                    nextA = a.hasNext() ? a.next() : null;
+                } else {
+                    out = nextB;
+                    nextB = b.hasNext() ? b.next() : null;
+                }
+                return out;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(first::close)
+                .onClose(second::close);
+    }
+
+    private long writeNdjson(Stream<Reservation> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = ndjsonWriter.writeValues(out)) {
+            for (Reservation r : (Iterable<Reservation>) rows::iterator) {
+                writer.write(r);
+                detach(r);
+                count++;
+            }
+        }
+        out.write('\n');
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(Stream<Reservation> rows, OutputStream out) throws IOException {
+        long count = 0;
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        for (Reservation r : (Iterable<Reservation>) rows::iterator) {
+            writer.write(String.join(",", csv(r.getId()), csv(r.getCustomerName()), csv(r.getRoomNumber()),
+                    csv(r.getStartDate()), csv(r.getEndDate()), csv(r.getRoomSegment()), csv(r.getPaymentMode()),
+                    csv(r.getPaymentReference()), csv(r.getAmount() == null ? null : r.getAmount().toPlainString()),
+                    csv(r.getCurrency()), csv(r.getStatus())));
+            writer.write('\n');
+            detach(r);
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // the persistence context would otherwise keep every row read so far
+    private void detach(Reservation r) {
+        entityManager.detach(r);
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break
+    static String csv(Object value) {
+        String s = Objects.toString(value, "");
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    private static void checkRange(ReservationSearchCriteria c) {
+        if (c.from() != null && c.to() != null && c.to().isBefore(c.from())) {
+            throw new InvalidReservationException("'to' must not be before 'from'");
+        }
+    }
+}
@@ -1,51 +1,381 @@
 package com.assignment.reservation.service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
-import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.assignment.reservation.config.LogMarkers;
+import com.assignment.reservation.dto.BankTransferEvent;
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.dto.BulkConfirmResult;
+import com.assignment.reservation.dto.CancellationRunResult;
 import com.assignment.reservation.dto.ConfirmReservationRequest;
 import com.assignment.reservation.dto.ConfirmReservationResponse;
 import com.assignment.reservation.dto.PaymentStatusResponse;
+import com.assignment.reservation.dto.ReservationStatusChangedEvent;
+import com.assignment.reservation.dto.RoomAvailabilityResponse;
+import com.assignment.reservation.entity.ArchivedReservation;
 import com.assignment.reservation.entity.PaymentMode;
 import com.assignment.reservation.entity.Reservation;
 import com.assignment.reservation.entity.ReservationStatus;
 import com.assignment.reservation.entity.RoomSegment;
 import com.assignment.reservation.exception.InvalidReservationException;
 import com.assignment.reservation.exception.PaymentNotConfirmedException;
+import com.assignment.reservation.exception.PaymentServiceUnavailableException;
 import com.assignment.reservation.exception.ReservationNotFoundException;
+import com.assignment.reservation.exception.RoomUnavailableException;
+import com.assignment.reservation.repository.ArchivedReservationRepository;
 import com.assignment.reservation.repository.ReservationRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.log4j.Log4j2;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
 
 @Log4j2
 @Service
 public class ReservationService {
     private final ReservationRepository repo;
     private final CreditCardClient creditCardClient;
+    private final TransactionTemplate transactionTemplate;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomInventory inventory;
+    private final ApplicationEventPublisher events;
+    private final ReservationIdGenerator idGenerator;
+    private final ArchivedReservationRepository archive;
+    private final PaymentLedger ledger;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<ConfirmTimerKey, Timer> confirmTimers = new ConcurrentHashMap<>();
+    private final Validator validator;
 
-    public ReservationService(ReservationRepository repo, CreditCardClient creditCardClient) {
+    @Value("${app.reservation.transition-attempts:3}")
+    private int transitionAttempts = 3;
+
+    @Value("${app.bulk.chunk-size:100}")
+    private int bulkChunkSize = 100;
+
+    @Value("${app.bulk.card-lookup-concurrency:16}")
+    private int bulkCardLookupConcurrency = 16;
+
+    public ReservationService(ReservationRepository repo, CreditCardClient creditCardClient,
+                              TransactionTemplate transactionTemplate, RoomAvailabilityIndex availabilityIndex,
+                              RoomInventory inventory, ApplicationEventPublisher events, ReservationIdGenerator idGenerator,
+                              ArchivedReservationRepository archive, PaymentLedger ledger,
+                              MeterRegistry meterRegistry, Validator validator) {
         this.repo = repo;
         this.creditCardClient = creditCardClient;
+        this.transactionTemplate = transactionTemplate;
+        this.availabilityIndex = availabilityIndex;
+        this.inventory = inventory;
+        this.events = events;
+        this.idGenerator = idGenerator;
+        this.archive = archive;
+        this.ledger = ledger;
+        this.meterRegistry = meterRegistry;
+        this.validator = validator;
     }
 
-    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadAvailabilityIndex() {
+        try (Stream<Reservation> active = repo.streamByStatusNotAndEndDateGreaterThanEqual(ReservationStatus.CANCELLED,
+                LocalDate.now())) {
+            active.forEach(availabilityIndex::add);
+        }
+        log.info("Room availability index loaded");
+    }
+
+    /**
+     * Only the final write runs in a transaction: the credit-card lookup happens before it, so a
+     * request thread waiting on the provider holds no JDBC connection and never parks inside
+     * driver code (which can pin a virtual thread to its carrier).
+     */
     public ConfirmReservationResponse confirm(ConfirmReservationRequest req) {
-        log.info("Confirm reservation request for {} room {}", req.customerName(), req.roomNumber());
+        log.debug("Confirm reservation request for {} room {}", req.customerName(), req.roomNumber());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            ConfirmReservationResponse resp = doConfirm(req);
+            outcome = resp.reservationStatus();
+            return resp;
+        } catch (RuntimeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(confirmTimer(req.paymentMode(), outcome));
+        }
+    }
+
+    private ConfirmReservationResponse doConfirm(ConfirmReservationRequest req) {
+        Reservation r = newReservation(req);
+
+        if (r.getPaymentMode() == PaymentMode.CREDIT_CARD) {
+            // blocking - cheap on a virtual thread, prefer confirmAsync on platform threads
+            Mono<PaymentStatusResponse> mono = creditCardClient.getPaymentStatus(req.paymentReference());
+            PaymentStatusResponse resp = mono.block();
+            if (!isConfirmed(resp)) {
+                throw paymentNotConfirmed(req.paymentReference());
+            }
+            return transactionTemplate.execute(status -> confirmCreditCard(r, resp));
+        }
+        return transactionTemplate.execute(status -> confirmWithoutCardCheck(r));
+    }
 
+    /**
+     * Non-blocking variant of {@link #confirm}. The credit-card provider is called first and the
+     * transaction is only opened once its answer has arrived, so no servlet thread or JDBC
+     * connection is held while waiting on the payment service.
+     */
+    public Mono<ConfirmReservationResponse> confirmAsync(ConfirmReservationRequest req) {
+        log.debug("Confirm reservation request (async) for {} room {}", req.customerName(), req.roomNumber());
+
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return Mono.fromCallable(() -> newReservation(req))
+                    .flatMap(r -> {
+                        if (r.getPaymentMode() != PaymentMode.CREDIT_CARD) {
+                            return Mono.fromCallable(() -> transactionTemplate.execute(status -> confirmWithoutCardCheck(r)));
+                        }
+                        return creditCardClient.getPaymentStatus(req.paymentReference())
+                                .switchIfEmpty(Mono.error(() -> paymentNotConfirmed(req.paymentReference())))
+                                // JDBC work must not run on the WebClient event loop
+                                .publishOn(Schedulers.boundedElastic())
+                                .map(resp -> transactionTemplate.execute(status -> confirmCreditCard(r, resp)));
+                    })
+                    .doOnSuccess(resp -> sample.stop(confirmTimer(req.paymentMode(), resp.reservationStatus())))
+                    .doOnError(e -> sample.stop(confirmTimer(req.paymentMode(), e.getClass().getSimpleName())));
+        });
+    }
+
+    // confirm latency per payment mode; outcome is the resulting status or the exception type
+    private Timer confirmTimer(String paymentMode, String outcome) {
+        return confirmTimers.computeIfAbsent(new ConfirmTimerKey(paymentModeTag(paymentMode), outcome),
+                key -> Timer.builder("reservation.confirm")
+                        .description("Reservation confirmations, from request to committed reservation")
+                        .tag("payment.mode", key.paymentMode())
+                        .tag("outcome", key.outcome())
+                        .register(meterRegistry));
+    }
+
+    private record ConfirmTimerKey(String paymentMode, String outcome) {
+    }
+
+    private static String paymentModeTag(String paymentMode) {
+        if (paymentMode == null) {
+            return "UNKNOWN";
+        }
+        try {
+            return PaymentMode.valueOf(paymentMode.toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            return "UNKNOWN";
+        }
+    }
+
+    // one bulk item on its way through confirmAll: rejected once 'failure' is set
+    private record BulkItem(int index, Reservation reservation, RuntimeException failure) {
+        BulkItem failed(Throwable e) {
+            return new BulkItem(index, reservation,
+                    e instanceof RuntimeException re ? re : new PaymentServiceUnavailableException(e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Confirms a group of reservations in one go. The whole set is validated and its rooms are
+     * claimed in the availability index before anything else happens, so stays that overlap each
+     * other or an existing booking are rejected up front. Credit-card lookups then run concurrently
+     * (at most {@code bulkCardLookupConcurrency} at a time), and accepted reservations are saved in
+     * transactions of up to {@code bulkChunkSize}, which Hibernate sends as JDBC batches.
+     *
+     * Items succeed or fail individually; each result is emitted as soon as it is known. Rooms are
+     * claimed on subscription, and if the stream is cancelled (client gone) or fails, the rooms of
+     * items that have not reached {@link #saveChunk} yet are released again.
+     */
+    public Flux<BulkConfirmResult> confirmAll(List<ConfirmReservationRequest> requests) {
+        return Flux.defer(() -> {
+            log.info("Bulk confirm of {} reservations", requests.size());
+            List<BulkConfirmResult> rejected = new ArrayList<>();
+            List<BulkItem> held = new ArrayList<>(requests.size());
+            // rooms claimed in the index but not yet saved or released, by item index
+            Map<Integer, Reservation> unsettled = new ConcurrentHashMap<>();
+            for (int i = 0; i < requests.size(); i++) {
+                try {
+                    Reservation r = newReservation(validated(requests.get(i)));
+                    if (r.getPaymentMode() == PaymentMode.CREDIT_CARD
+                            && (r.getPaymentReference() == null || r.getPaymentReference().isBlank())) {
+                        throw new InvalidReservationException("paymentReference is required for CREDIT_CARD");
+                    }
+                    if (!availabilityIndex.tryReserve(r)) {
+                        throw roomUnavailable(r.getRoomNumber());
+                    }
+                    held.add(new BulkItem(i, r, null));
+                    unsettled.put(i, r);
+                } catch (RuntimeException e) {
+                    rejected.add(BulkConfirmResult.rejected(i, e.getMessage()));
+                }
+            }
+
+            Flux<BulkConfirmResult> decided = Flux.fromIterable(held)
+                    .flatMap(item -> item.reservation().getPaymentMode() == PaymentMode.CREDIT_CARD
+                            ? checkCard(item) : Mono.just(item), bulkCardLookupConcurrency)
+                    .bufferTimeout(bulkChunkSize, Duration.ofMillis(100))
+                    // JDBC work must not run on the WebClient event loop; one chunk at a time
+                    .publishOn(Schedulers.boundedElastic())
+                    .concatMapIterable(chunk -> saveChunk(chunk, unsettled));
+            return Flux.concat(Flux.fromIterable(rejected), decided)
+                    .doFinally(signal -> releaseUnsettled(unsettled, signal));
+        });
+    }
+
+    private void releaseUnsettled(Map<Integer, Reservation> unsettled, SignalType signal) {
+        if (unsettled.isEmpty()) {
+            return;
+        }
+        log.info("Bulk confirm ended with {}, releasing {} held rooms", signal, unsettled.size());
+        for (Integer index : List.copyOf(unsettled.keySet())) {
+            Reservation r = unsettled.remove(index);
+            if (r != null) {
+                availabilityIndex.release(r);
+            }
+        }
+    }
+
+    private ConfirmReservationRequest validated(ConfirmReservationRequest req) {
+        Set<ConstraintViolation<ConfirmReservationRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<ConfirmReservationRequest> first = violations.iterator().next();
+            throw new InvalidReservationException(first.getPropertyPath() + " " + first.getMessage());
+        }
+        return req;
+    }
+
+    private Mono<BulkItem> checkCard(BulkItem item) {
+        String paymentReference = item.reservation().getPaymentReference();
+        // deferred, so an error thrown while building the lookup is still this item's failure
+        return Mono.defer(() -> creditCardClient.getPaymentStatus(paymentReference))
+                .filter(ReservationService::isConfirmed)
+                .map(resp -> item)
+                .switchIfEmpty(Mono.fromSupplier(() -> item.failed(paymentNotConfirmed(paymentReference))))
+                .onErrorResume(e -> Mono.just(item.failed(e)));
+    }
+
+    // items whose hold was already released by a cancelled stream are skipped
+    private List<BulkConfirmResult> saveChunk(List<BulkItem> chunk, Map<Integer, Reservation> unsettled) {
+        List<BulkConfirmResult> results = new ArrayList<>(chunk.size());
+        List<BulkItem> settled = new ArrayList<>(chunk.size());
+        List<Reservation> accepted = new ArrayList<>(chunk.size());
+        for (BulkItem item : chunk) {
+            if (unsettled.remove(item.index()) == null) {
+                continue;
+            }
+            settled.add(item);
+            Reservation r = item.reservation();
+            if (item.failure() != null) {
+                availabilityIndex.release(r);
+                results.add(BulkConfirmResult.rejected(item.index(), item.failure().getMessage()));
+            } else {
+                r.setStatus(r.getPaymentMode() == PaymentMode.BANK_TRANSFER
+                        ? ReservationStatus.PENDING_PAYMENT : ReservationStatus.CONFIRMED);
+                accepted.add(r);
+            }
+        }
+        Map<String, String> notSaved = save(accepted);
+        for (BulkItem item : settled) {
+            if (item.failure() == null) {
+                Reservation r = item.reservation();
+                String reason = notSaved.get(r.getId());
+                results.add(reason == null
+                        ? BulkConfirmResult.accepted(item.index(), r.getId(), r.getStatus().name())
+                        : BulkConfirmResult.rejected(item.index(), reason));
+            }
+        }
+        log.debug("Bulk chunk saved: {} accepted, {} rejected", accepted.size() - notSaved.size(),
+                settled.size() - accepted.size() + notSaved.size());
+        return results;
+    }
+
+    /**
+     * Saves the reservations in one transaction. If a room night turns out to be taken (booked by
+     * another instance that this one's index has not heard of yet), the chunk is saved again one
+     * reservation at a time, so only the overlapping stays are rejected.
+     *
+     * @return the reason per reservation id that was not saved; its room is released in the index
+     */
+    private Map<String, String> save(List<Reservation> accepted) {
+        if (accepted.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                repo.saveAll(accepted);
+                inventory.claim(accepted);
+                accepted.forEach(this::statusChanged);
+                return accepted.size();
+            });
+            return Map.of();
+        } catch (RoomUnavailableException e) {
+            // persist() of the rolled back attempt has set the version, which would turn the next save into a merge
+            accepted.forEach(r -> r.setVersion(null));
+            if (accepted.size() == 1) {
+                availabilityIndex.release(accepted.get(0));
+                return Map.of(accepted.get(0).getId(), e.getMessage());
+            }
+            log.info("Room night taken in a bulk chunk of {} reservations, saving them one by one", accepted.size());
+            Map<String, String> notSaved = new HashMap<>();
+            accepted.forEach(r -> notSaved.putAll(save(List.of(r))));
+            return notSaved;
+        } catch (RuntimeException e) {
+            log.warn("Bulk chunk of {} reservations not saved: {}", accepted.size(), e.toString());
+            accepted.forEach(availabilityIndex::release);
+            Map<String, String> notSaved = new HashMap<>();
+            accepted.forEach(r -> notSaved.put(r.getId(), "Reservation could not be saved"));
+            return notSaved;
+        }
+    }
+
+    private Reservation newReservation(ConfirmReservationRequest req) {
         long days = ChronoUnit.DAYS.between(req.startDate(), req.endDate()) + 1;
         if (days <= 0 || days > 30) {
              throw new InvalidReservationException("Reservation length must be between 1 and 30 days");
         }
+        // fail fast, before any payment lookup; holdRoom re-checks atomically when saving
+        if (!availabilityIndex.isAvailable(req.roomNumber(), req.startDate(), req.endDate())) {
+            throw roomUnavailable(req.roomNumber());
+        }
 
         Reservation r = new Reservation();
-        r.setId(generateId());
+        r.setId(idGenerator.nextId());
         r.setCustomerName(req.customerName());
         r.setRoomNumber(req.roomNumber());
         r.setStartDate(req.startDate());
@@ -69,71 +399,305 @@ public class ReservationService {
          * .currency(req.getCurrency())
          * .build();
          */
+        return r;
+    }
 
-        if (r.getPaymentMode() == PaymentMode.CASH) {
+    private ConfirmReservationResponse confirmCreditCard(Reservation r, PaymentStatusResponse resp) {
+        if (isConfirmed(resp)) {
             r.setStatus(ReservationStatus.CONFIRMED);
+            holdRoom(r);
             repo.save(r);
-            log.info("Reservation {} confirmed (cash)", r.getId());
+            statusChanged(r);
+            log.info(LogMarkers.EVENT, "Reservation {} confirmed (credit-card)", r.getId());
             return new ConfirmReservationResponse(r.getId(), r.getStatus().name());
-        } else if (r.getPaymentMode() == PaymentMode.CREDIT_CARD) {
-            // blocking for simplicity - in prod use async/reactive or retries
-            Mono<PaymentStatusResponse> mono = creditCardClient.getPaymentStatus(req.paymentReference());
-            PaymentStatusResponse resp = mono.block();
-            if (resp != null && "CONFIRMED".equalsIgnoreCase(resp.status())) {
-                r.setStatus(ReservationStatus.CONFIRMED);
-                repo.save(r);
-                log.info("Reservation {} confirmed (credit-card)", r.getId());
-                return new ConfirmReservationResponse(r.getId(), r.getStatus().name());
-            } else {
-                log.warn("Credit card payment not confirmed for ref {}", req.paymentReference());
-                throw new PaymentNotConfirmedException("Credit card payment not confirmed");
+        }
+        throw paymentNotConfirmed(r.getPaymentReference());
+    }
 
-            }
+    private ConfirmReservationResponse confirmWithoutCardCheck(Reservation r) {
+        holdRoom(r);
+        if (r.getPaymentMode() == PaymentMode.CASH) {
+            r.setStatus(ReservationStatus.CONFIRMED);
+            repo.save(r);
+            log.info(LogMarkers.EVENT, "Reservation {} confirmed (cash)", r.getId());
         } else {
             // BANK_TRANSFER
             r.setStatus(ReservationStatus.PENDING_PAYMENT);
             repo.save(r);
-            log.info("Reservation {} pending payment (bank transfer)", r.getId());
-            return new ConfirmReservationResponse(r.getId(), r.getStatus().name());
+            log.info(LogMarkers.EVENT, "Reservation {} pending payment (bank transfer)", r.getId());
         }
+        statusChanged(r);
+        return new ConfirmReservationResponse(r.getId(), r.getStatus().name());
     }
 
-    @Transactional
-    public void markConfirmedIfAmountMatches(String reservationId, BigDecimal amountReceived) {
-        log.debug("Marking reservation {} confirmed if amount {} matches", reservationId, amountReceived);
-
-        repo.findById(reservationId).ifPresentOrElse(r -> {
-            if (r.getPaymentMode() == PaymentMode.BANK_TRANSFER &&
-                    r.getStatus() == ReservationStatus.PENDING_PAYMENT) {
-                if (amountReceived.compareTo(r.getAmount()) >= 0) {
-                    r.setStatus(ReservationStatus.CONFIRMED);
-                    repo.save(r);
-                    log.info("Reservation {} confirmed via bank transfer", reservationId);
-                } else {
-                    log.info("Amount {} is less than expected {} for {}", amountReceived, r.getAmount(), reservationId);
+    /**
+     * Claims the room in the availability index, handing it back if the surrounding transaction rolls
+     * back, then in the database: the index only knows this instance's bookings and those it has
+     * been told about, the {@code room_nights} key also sees other instances' bookings.
+     */
+    private void holdRoom(Reservation r) {
+        if (!availabilityIndex.tryReserve(r)) {
+            throw roomUnavailable(r.getRoomNumber());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        availabilityIndex.release(r);
+                    }
                 }
-            } else {
-                log.info("Reservation {} not eligible for bank transfer confirm (mode/status)", reservationId);
+            });
+        }
+        inventory.claim(List.of(r));
+    }
+
+    private RoomUnavailableException roomUnavailable(String roomNumber) {
+        return new RoomUnavailableException("Room " + roomNumber + " is already booked for the requested dates");
+    }
+
+    private static boolean isConfirmed(PaymentStatusResponse resp) {
+        return resp != null && "CONFIRMED".equalsIgnoreCase(resp.status());
+    }
+
+    private PaymentNotConfirmedException paymentNotConfirmed(String paymentReference) {
+        log.warn("Credit card payment not confirmed for ref {}", paymentReference);
+        return new PaymentNotConfirmedException("Credit card payment not confirmed");
+    }
+
+    /**
+     * Records the transfer in the {@link PaymentLedger} and confirms the bank-transfer reservation
+     * once everything it has received covers its amount, so partial payments add up. A payment id
+     * that is already in the ledger (a redelivered event) changes nothing.
+     *
+     * The status change is a compare-and-set ({@code PENDING_PAYMENT -> CONFIRMED}), so it can never
+     * overwrite a cancellation by the sweep. If the reservation changed between read and update, the
+     * transaction (ledger row included) rolls back and the attempt is repeated against the fresh row,
+     * at most {@code transitionAttempts} times.
+     *
+     * Every recorded payment also bumps the reservation's version against the one read. Two partial
+     * payments arriving together would otherwise each see only their own amount under READ COMMITTED
+     * and neither would confirm; with the bump the second one conflicts, retries, and sums both.
+     */
+    public BankTransferOutcome markConfirmedIfAmountMatches(String paymentId, String reservationId,
+                                                            BigDecimal amountReceived) {
+        log.debug("Recording payment {} of {} for reservation {}", paymentId, amountReceived, reservationId);
+
+        for (int attempt = 1; ; attempt++) {
+            BankTransferOutcome outcome = transactionTemplate.execute(status -> {
+                BankTransferOutcome applied = tryConfirmByTransfer(paymentId, reservationId, amountReceived);
+                if (applied == null) {
+                    status.setRollbackOnly();
+                }
+                return applied;
+            });
+            if (outcome != null) {
+                return outcome;
+            }
+            if (attempt >= transitionAttempts) {
+                throw new OptimisticLockingFailureException("Reservation " + reservationId
+                        + " kept changing, gave up after " + attempt + " attempts");
             }
-        }, () -> log.warn("Reservation {} not found while processing payment event", reservationId));
+            log.debug("Reservation {} changed concurrently, retrying ({}/{})", reservationId, attempt, transitionAttempts);
+        }
+    }
+
+    // null when the reservation changed between the read and the version bump or conditional update
+    private BankTransferOutcome tryConfirmByTransfer(String paymentId, String reservationId, BigDecimal amountReceived) {
+        Reservation r = repo.findById(reservationId).orElse(null);
+        if (r == null) {
+            log.warn("Reservation {} not found while processing payment event", reservationId);
+            return BankTransferOutcome.NOT_FOUND;
+        }
+        if (!ledger.record(paymentId, reservationId, amountReceived)) {
+            return BankTransferOutcome.DUPLICATE;
+        }
+        // holds the row until commit, so the total below includes every payment committed before ours
+        if (repo.bumpVersion(reservationId, r.getVersion()) == 0) {
+            return null;
+        }
+        BankTransferOutcome outcome = evaluateBankTransfer(r, ledger.totalReceived(reservationId));
+        if (outcome != BankTransferOutcome.CONFIRMED) {
+            return outcome;
+        }
+        if (repo.transition(reservationId, ReservationStatus.PENDING_PAYMENT, ReservationStatus.CONFIRMED) == 0) {
+            return null;
+        }
+        log.info(LogMarkers.EVENT, "Reservation {} confirmed via bank transfer", reservationId);
+        statusChanged(reservationId, ReservationStatus.CONFIRMED);
+        return BankTransferOutcome.CONFIRMED;
     }
+
+    /**
+     * Batch form of {@link #markConfirmedIfAmountMatches}: one {@code findAllById}, one ledger lookup
+     * of the payment ids and totals, and a single transaction whose reservation updates Hibernate
+     * flushes as JDBC batches (ledger rows are inserted one by one, see {@link PaymentLedger}).
+     * Events are applied in order, so a later transfer for the same reservation adds to the earlier
+     * one, and a payment id repeated within the batch or recorded by another instance counts once.
+     * The updates are version-checked: if the sweep cancelled one of the reservations meanwhile,
+     * the whole batch rolls back and is redelivered, and the next attempt sees the cancellation.
+     * Reservations that only received a partial payment get their version bumped the same way, so
+     * a concurrent recorder for the same reservation conflicts instead of missing this payment.
+     *
+     * @return the outcome of each event, in the order of {@code events}
+     */
     @Transactional
-    public void cancelStaleBankTransferReservations(LocalDate cutoffDate) {
+    public List<BankTransferOutcome> applyBankTransfers(List<BankTransferEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+        Set<String> ids = new HashSet<>();
+        events.forEach(e -> ids.add(e.reservationId()));
+        Map<String, Reservation> byId = new HashMap<>();
+        repo.findAllById(ids).forEach(r -> byId.put(r.getId(), r));
+        Set<String> recorded = ledger.recordedAmong(events.stream()
+                .filter(e -> byId.containsKey(e.reservationId()))
+                .map(BankTransferEvent::paymentId)
+                .toList());
+        Map<String, BigDecimal> received = ledger.totalsReceived(byId.keySet());
+
+        List<Reservation> confirmed = new ArrayList<>();
+        Map<String, Reservation> paidInto = new LinkedHashMap<>();
+        List<BankTransferOutcome> outcomes = new ArrayList<>(events.size());
+        for (BankTransferEvent event : events) {
+            Reservation r = byId.get(event.reservationId());
+            BankTransferOutcome outcome;
+            if (r == null) {
+                log.warn("Reservation {} not found while processing payment event", event.reservationId());
+                outcome = BankTransferOutcome.NOT_FOUND;
+            } else if (!recorded.add(event.paymentId())) {
+                log.info(LogMarkers.EVENT, "Payment {} for reservation {} already recorded, ignoring", event.paymentId(), r.getId());
+                outcome = BankTransferOutcome.DUPLICATE;
+            } else if (!ledger.append(event.paymentId(), r.getId(), event.amountReceived())) {
+                log.info(LogMarkers.EVENT, "Payment {} for reservation {} recorded by another instance, ignoring", event.paymentId(), r.getId());
+                outcome = BankTransferOutcome.DUPLICATE;
+            } else {
+                paidInto.put(r.getId(), r);
+                outcome = evaluateBankTransfer(r, received.merge(r.getId(), event.amountReceived(), BigDecimal::add));
+            }
+            if (outcome == BankTransferOutcome.CONFIRMED) {
+                r.setStatus(ReservationStatus.CONFIRMED);
+                log.info(LogMarkers.EVENT, "Reservation {} confirmed via bank transfer", r.getId());
+                confirmed.add(r);
+            }
+            outcomes.add(outcome);
+        }
+        repo.saveAll(confirmed);
+        confirmed.forEach(r -> paidInto.remove(r.getId()));
+        for (Reservation r : paidInto.values()) {
+            if (repo.bumpVersion(r.getId(), r.getVersion()) == 0) {
+                throw new OptimisticLockingFailureException("Reservation " + r.getId()
+                        + " changed while recording its payment");
+            }
+        }
+        confirmed.forEach(this::statusChanged);
+        log.info("Applied {} bank-transfer events, {} reservations confirmed", events.size(), confirmed.size());
+        return outcomes;
+    }
+
+    // listeners run after commit (cache eviction) or inside the transaction, see ReservationStatusChangedEvent
+    private void statusChanged(Reservation r) {
+        statusChanged(r.getId(), r.getStatus());
+    }
+
+    private void statusChanged(String reservationId, ReservationStatus status) {
+        events.publishEvent(new ReservationStatusChangedEvent(reservationId, status, Instant.now()));
+    }
+
+    /** What a total received would do to the reservation; the reservation itself is left unchanged. */
+    private BankTransferOutcome evaluateBankTransfer(Reservation r, BigDecimal totalReceived) {
+        if (r.getPaymentMode() == PaymentMode.BANK_TRANSFER &&
+                r.getStatus() == ReservationStatus.PENDING_PAYMENT) {
+            if (totalReceived.compareTo(r.getAmount()) >= 0) {
+                return BankTransferOutcome.CONFIRMED;
+            }
+            log.info(LogMarkers.EVENT, "Received {} of expected {} for {} so far", totalReceived, r.getAmount(), r.getId());
+            return BankTransferOutcome.PARTIALLY_PAID;
+        }
+        log.info(LogMarkers.EVENT, "Reservation {} not eligible for bank transfer confirm (mode/status)", r.getId());
+        return BankTransferOutcome.NOT_ELIGIBLE;
+    }
+
+    /**
+     * Cancels unpaid bank-transfer reservations starting before the cutoff, walking them in keyset
+     * order (by id) one chunk at a time. Each chunk is a short transaction of its own with a
+     * conditional bulk update, so neither the heap nor row locks ever cover the whole backlog.
+     */
+    public CancellationRunResult cancelStaleBankTransferReservations(LocalDate cutoffDate, int chunkSize) {
         log.info("Cancelling bank-transfer reservations starting before {}", cutoffDate);
-        List<Reservation> list = repo.findByStatusAndPaymentModeAndStartDateBefore(ReservationStatus.PENDING_PAYMENT,
-                PaymentMode.BANK_TRANSFER, cutoffDate);
-        list.forEach(r -> {
+        long started = System.nanoTime();
+        int scanned = 0;
+        int cancelled = 0;
+        String afterId = "";
+
+        while (true) {
+            List<Reservation> chunk = repo.findByStatusAndPaymentModeAndStartDateBeforeAndIdGreaterThanOrderByIdAsc(
+                    ReservationStatus.PENDING_PAYMENT, PaymentMode.BANK_TRANSFER, cutoffDate, afterId, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            List<String> ids = chunk.stream().map(Reservation::getId).toList();
+            List<Reservation> cancelledInChunk = transactionTemplate.execute(status -> cancelChunk(chunk, ids));
+            // only once committed: a rolled back chunk must keep its rooms
+            cancelledInChunk.forEach(availabilityIndex::release);
+
+            scanned += chunk.size();
+            cancelled += cancelledInChunk.size();
+            afterId = ids.get(ids.size() - 1);
+            log.debug("Cancelled {} of {} stale reservations up to id {}", cancelledInChunk.size(), chunk.size(), afterId);
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        CancellationRunResult result = new CancellationRunResult(scanned, cancelled, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        meterRegistry.timer("reservation.cancellation.sweep").record(elapsed, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("reservation.cancellation.scanned").increment(scanned);
+        meterRegistry.counter("reservation.cancellation.cancelled").increment(cancelled);
+        log.info("Cancellation run finished: scanned={}, cancelled={}, durationMs={}",
+                result.scanned(), result.cancelled(), result.durationMillis());
+        return result;
+    }
+
+    private List<Reservation> cancelChunk(List<Reservation> chunk, List<String> ids) {
+        int updated = repo.updateStatus(ids, ReservationStatus.PENDING_PAYMENT, ReservationStatus.CANCELLED);
+        List<Reservation> cancelledInChunk = chunk;
+        if (updated != chunk.size()) {
+            // some rows changed status since they were read (e.g. paid meanwhile), keep only the cancelled ones
+            cancelledInChunk = repo.findAllById(ids).stream()
+                    .filter(r -> r.getStatus() == ReservationStatus.CANCELLED)
+                    .toList();
+        }
+        cancelledInChunk.forEach(r -> {
             r.setStatus(ReservationStatus.CANCELLED);
-            repo.save(r);
-            log.info("Reservation {} cancelled due to missing bank transfer", r.getId());
+            statusChanged(r);
         });
+        inventory.release(cancelledInChunk.stream().map(Reservation::getId).toList());
+        return cancelledInChunk;
     }
 
-    public Reservation getById(String id) {
-        return repo.findById(id).orElseThrow(() -> new ReservationNotFoundException("Reservation " + id + " not found"));
+    public RoomAvailabilityResponse findAvailableRooms(LocalDate from, LocalDate to, String roomSegment) {
+        if (to.isBefore(from)) {
+            throw new InvalidReservationException("'to' must not be before 'from'");
+        }
+        RoomSegment segment;
+        try {
+            segment = RoomSegment.valueOf(roomSegment.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidReservationException("Unknown room segment " + roomSegment);
+        }
+        return new RoomAvailabilityResponse(segment.name(), from, to, availabilityIndex.availableRooms(segment, from, to,
+                inventory.roomNumbers(segment)));
     }
-    private String generateId() {
-        return "R" + RandomStringUtils.randomAlphanumeric(7).toUpperCase();
+
+    // sync: concurrent misses share one load, and an eviction waits for a running load instead of racing it
+    // finished stays are moved to the archive by ReservationArchiver, so look there on a miss
+    @Cacheable(cacheNames = ReservationCacheEvictor.CACHE_NAME, sync = true)
+    public Reservation getById(String id) {
+        return repo.findById(id)
+                .or(() -> archive.findById(id).map(ArchivedReservation::toReservation))
+                .orElseThrow(() -> new ReservationNotFoundException("Reservation " + id + " not found"));
     }
 
 }
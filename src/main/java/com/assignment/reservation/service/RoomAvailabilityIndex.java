@@ -0,0 +1,146 @@
+package com.assignment.reservation.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.RoomSegment;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * In-memory per-room calendar of the active (non-cancelled) reservations. Stays of one room never
+ * overlap, so keeping them in a {@link TreeMap} keyed by start date lets an overlap check look at a
+ * single neighbour: O(log n) per room, no table scan. Start and end dates are both inclusive, as in
+ * the length check of {@link ReservationService#confirm}.
+ *
+ * The database stays the source of truth: the index is loaded from it at startup,
+ * {@link ReservationService} keeps it in step with this instance's inserts and cancellations, and
+ * {@code AvailabilityIndexRefresher} applies the committed changes of other instances. Between those
+ * a booking made elsewhere can be missing here; {@link RoomInventory} then rejects the overlap when
+ * the stay is written.
+ */
+@Log4j2
+@Component
+public class RoomAvailabilityIndex {
+
+    private final Map<String, RoomCalendar> rooms = new ConcurrentHashMap<>();
+
+    public boolean isAvailable(String roomNumber, LocalDate start, LocalDate end) {
+        RoomCalendar calendar = rooms.get(roomNumber);
+        return calendar == null || calendar.isFree(start, end);
+    }
+
+    /**
+     * Atomically checks the room and records the stay.
+     *
+     * @return false if the room is already booked for any day of the stay
+     */
+    public boolean tryReserve(Reservation r) {
+        return calendar(r).tryAdd(r);
+    }
+
+    /** Records an existing stay without an availability check, e.g. while loading from the database. */
+    public void add(Reservation r) {
+        if (!calendar(r).tryAdd(r)) {
+            log.warn("Reservation {} overlaps another stay in room {}, not indexed", r.getId(), r.getRoomNumber());
+        }
+    }
+
+    public void release(Reservation r) {
+        RoomCalendar calendar = rooms.get(r.getRoomNumber());
+        if (calendar != null) {
+            calendar.remove(r);
+        }
+    }
+
+    /**
+     * Rooms of the given segment that are free for every day of {@code from..to}: the rooms of the
+     * catalogue plus any other room this index has seen a booking for.
+     */
+    public List<String> availableRooms(RoomSegment segment, LocalDate from, LocalDate to, Collection<String> catalogue) {
+        Set<String> candidates = new TreeSet<>(catalogue);
+        rooms.forEach((roomNumber, calendar) -> {
+            if (calendar.segment == segment) {
+                candidates.add(roomNumber);
+            }
+        });
+        List<String> free = new ArrayList<>();
+        for (String roomNumber : candidates) {
+            if (isAvailable(roomNumber, from, to)) {
+                free.add(roomNumber);
+            }
+        }
+        return free;
+    }
+
+    private RoomCalendar calendar(Reservation r) {
+        RoomCalendar calendar = rooms.computeIfAbsent(r.getRoomNumber(), k -> new RoomCalendar());
+        calendar.segment = r.getRoomSegment();
+        return calendar;
+    }
+
+    private record Stay(String reservationId, LocalDate end) {
+    }
+
+    private static final class RoomCalendar {
+        // explicit locks rather than synchronized, so virtual threads are never pinned here
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<LocalDate, Stay> staysByStart = new TreeMap<>();
+        private volatile RoomSegment segment;
+
+        boolean isFree(LocalDate start, LocalDate end) {
+            lock.readLock().lock();
+            try {
+                return !overlaps(start, end);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        boolean tryAdd(Reservation r) {
+            lock.writeLock().lock();
+            try {
+                Stay existing = staysByStart.get(r.getStartDate());
+                if (existing != null && existing.reservationId().equals(r.getId())) {
+                    return true;
+                }
+                if (overlaps(r.getStartDate(), r.getEndDate())) {
+                    return false;
+                }
+                staysByStart.put(r.getStartDate(), new Stay(r.getId(), r.getEndDate()));
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Reservation r) {
+            lock.writeLock().lock();
+            try {
+                Stay existing = staysByStart.get(r.getStartDate());
+                if (existing != null && existing.reservationId().equals(r.getId())) {
+                    staysByStart.remove(r.getStartDate());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // the latest stay starting on or before 'end' is the only one that can reach into start..end
+        private boolean overlaps(LocalDate start, LocalDate end) {
+            Map.Entry<LocalDate, Stay> candidate = staysByStart.floorEntry(end);
+            return candidate != null && !candidate.getValue().end().isBefore(start);
+        }
+    }
+}
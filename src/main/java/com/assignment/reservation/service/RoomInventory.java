@@ -0,0 +1,75 @@
+package com.assignment.reservation.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.Room;
+import com.assignment.reservation.entity.RoomNight;
+import com.assignment.reservation.entity.RoomSegment;
+import com.assignment.reservation.exception.RoomUnavailableException;
+import com.assignment.reservation.repository.RoomNightRepository;
+import com.assignment.reservation.repository.RoomRepository;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * The database side of room availability: the room catalogue and one {@code room_nights} row per
+ * booked night. {@link RoomAvailabilityIndex} answers quickly from memory, but only knows what its
+ * own instance has seen; the primary key of {@code room_nights} is what keeps two instances from
+ * booking the same room for the same night.
+ *
+ * {@link #claim} and {@link #release} join the caller's transaction.
+ */
+@Log4j2
+@Service
+public class RoomInventory {
+    private final RoomRepository rooms;
+    private final RoomNightRepository nights;
+
+    public RoomInventory(RoomRepository rooms, RoomNightRepository nights) {
+        this.rooms = rooms;
+        this.nights = nights;
+    }
+
+    /**
+     * Writes the nights of the stays and flushes, so a night already taken (possibly by another
+     * instance, once its transaction commits) fails here rather than at commit.
+     *
+     * @throws RoomUnavailableException if any night is taken; the caller's transaction must roll back
+     */
+    public void claim(Collection<Reservation> stays) {
+        List<RoomNight> claimed = new ArrayList<>();
+        for (Reservation r : stays) {
+            r.getStartDate().datesUntil(r.getEndDate().plusDays(1))
+                    .forEach(night -> claimed.add(new RoomNight(r.getRoomNumber(), night, r.getId())));
+        }
+        try {
+            nights.saveAllAndFlush(claimed);
+        } catch (DataIntegrityViolationException e) {
+            log.info("Room night already taken while booking {} stays: {}", stays.size(), e.getMostSpecificCause().getMessage());
+            throw new RoomUnavailableException(stays.size() == 1
+                    ? "Room " + stays.iterator().next().getRoomNumber() + " is already booked for the requested dates"
+                    : "One of the rooms is already booked for the requested dates");
+        }
+    }
+
+    public void release(Collection<String> reservationIds) {
+        if (!reservationIds.isEmpty()) {
+            nights.deleteByReservationIds(reservationIds);
+        }
+    }
+
+    public List<String> roomNumbers(RoomSegment segment) {
+        return rooms.findRoomNumbers(segment);
+    }
+
+    /** Adds the room to the catalogue, or moves it to another segment. */
+    public void register(String roomNumber, RoomSegment segment) {
+        rooms.save(new Room(roomNumber, segment));
+    }
+}
@@ -0,0 +1,35 @@
+-- Schema as previously generated by Hibernate (ddl-auto: update) from the entities
+
+CREATE TABLE reservations (
+    id                VARCHAR(64)    NOT NULL PRIMARY KEY,
+    customer_name     VARCHAR(255),
+    room_number       VARCHAR(255),
+    start_date        DATE,
+    end_date          DATE,
+    room_segment      VARCHAR(32),
+    payment_mode      VARCHAR(32),
+    payment_reference VARCHAR(255),
+    amount            NUMERIC(10, 4),
+    status            VARCHAR(32),
+    currency          VARCHAR(16),
+    version           BIGINT         DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE scheduler_leases (
+    name       VARCHAR(255) NOT NULL PRIMARY KEY,
+    owner      VARCHAR(255),
+    expires_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE id_blocks (
+    name       VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_block BIGINT       NOT NULL
+);
+
+CREATE TABLE outbox_events (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    aggregate_id VARCHAR(255),
+    event_type   VARCHAR(255),
+    payload      VARCHAR(1000),
+    created_at   TIMESTAMP(6) WITH TIME ZONE
+);
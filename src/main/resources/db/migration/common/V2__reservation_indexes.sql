@@ -0,0 +1,5 @@
+-- Cancellation sweep: equality on status and payment mode, range on start date, keyset on id
+CREATE INDEX ix_reservations_status_mode_start ON reservations (status, payment_mode, start_date, id);
+
+-- Availability checks and the index rebuild: stays of one room by date
+CREATE INDEX ix_reservations_room_dates ON reservations (room_number, start_date, end_date);
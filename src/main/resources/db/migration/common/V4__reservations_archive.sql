@@ -0,0 +1,21 @@
+-- Cold storage for stays that have ended; rows are moved here by ReservationArchiver so the
+-- reservations table and its indexes only hold reservations that can still change.
+-- (V3 is taken by the PostgreSQL-only partial index.)
+CREATE TABLE reservations_archive (
+    id                VARCHAR(64)    NOT NULL PRIMARY KEY,
+    customer_name     VARCHAR(255),
+    room_number       VARCHAR(255),
+    start_date        DATE,
+    end_date          DATE,
+    room_segment      VARCHAR(32),
+    payment_mode      VARCHAR(32),
+    payment_reference VARCHAR(255),
+    amount            NUMERIC(10, 4),
+    status            VARCHAR(32),
+    currency          VARCHAR(16),
+    version           BIGINT         DEFAULT 0 NOT NULL,
+    archived_at       TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- Archival walk: ended stays in keyset order
+CREATE INDEX ix_reservations_end_date ON reservations (end_date, id);
@@ -0,0 +1,11 @@
+-- Payment ledger: one row per applied bank transfer. The primary key makes a redelivered event
+-- fail instead of being counted twice; the amounts of a reservation add up to what it was paid.
+CREATE TABLE bank_transfer_payments (
+    payment_id     VARCHAR(255)   NOT NULL PRIMARY KEY,
+    reservation_id VARCHAR(64)    NOT NULL,
+    amount         NUMERIC(10, 4) NOT NULL,
+    received_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- Total received per reservation
+CREATE INDEX ix_bank_transfer_payments_reservation ON bank_transfer_payments (reservation_id);
@@ -0,0 +1,40 @@
+-- Room catalogue, so rooms that have never been booked still show up as available
+CREATE TABLE rooms (
+    room_number  VARCHAR(255) NOT NULL PRIMARY KEY,
+    room_segment VARCHAR(32)  NOT NULL
+);
+
+INSERT INTO rooms (room_number, room_segment)
+SELECT room_number, MIN(room_segment)
+FROM (SELECT room_number, room_segment FROM reservations
+      UNION ALL
+      SELECT room_number, room_segment FROM reservations_archive) known
+WHERE room_number IS NOT NULL AND room_segment IS NOT NULL
+GROUP BY room_number;
+
+-- One row per booked room and night, written in the transaction that books the stay. The primary
+-- key is the cross-instance guard against double bookings: of two overlapping stays committed by
+-- different instances, the second insert fails. Rows of cancelled reservations are deleted.
+CREATE TABLE room_nights (
+    room_number    VARCHAR(255) NOT NULL,
+    night          DATE         NOT NULL,
+    reservation_id VARCHAR(64)  NOT NULL,
+    PRIMARY KEY (room_number, night)
+);
+
+CREATE INDEX ix_room_nights_reservation ON room_nights (reservation_id);
+
+-- Nights of the stays booked so far; should earlier double bookings exist, the night goes to the lowest id
+WITH RECURSIVE stay_nights (room_number, night, end_date, reservation_id) AS (
+    SELECT room_number, start_date, end_date, id
+    FROM reservations
+    WHERE status <> 'CANCELLED' AND room_number IS NOT NULL AND start_date <= end_date
+    UNION ALL
+    SELECT room_number, CAST(night + INTERVAL '1' DAY AS DATE), end_date, reservation_id
+    FROM stay_nights
+    WHERE night < end_date
+)
+INSERT INTO room_nights (room_number, night, reservation_id)
+SELECT room_number, night, MIN(reservation_id)
+FROM stay_nights
+GROUP BY room_number, night;
@@ -0,0 +1,13 @@
+-- Idempotency-Key header of /confirm and /confirm-async, shared by all instances. A row is inserted
+-- when a request starts (the primary key lets only one instance run it) and gets the response once
+-- the reservation is committed; a failed attempt deletes its row so the client can retry.
+CREATE TABLE idempotency_keys (
+    idempotency_key    VARCHAR(255) NOT NULL PRIMARY KEY,
+    request_digest     VARCHAR(64)  NOT NULL,
+    reservation_id     VARCHAR(64),
+    reservation_status VARCHAR(32),
+    created_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+-- Purge of expired keys
+CREATE INDEX ix_idempotency_keys_created_at ON idempotency_keys (created_at);
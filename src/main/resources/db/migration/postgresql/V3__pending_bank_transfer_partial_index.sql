@@ -0,0 +1,5 @@
+-- Only unpaid bank-transfer reservations are ever swept, a small fraction of the table.
+-- A partial index keeps just those rows, so it stays small however much history accumulates.
+-- (H2 has no partial indexes; there ix_reservations_status_mode_start serves the sweep.)
+CREATE INDEX ix_reservations_pending_bank_transfer ON reservations (start_date, id)
+    WHERE status = 'PENDING_PAYMENT' AND payment_mode = 'BANK_TRANSFER';
@@ -0,0 +1,145 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.dto.DeadLetterReplayResponse;
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+import com.assignment.reservation.repository.ReservationRepository;
+
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.kafka.bank-transfer.retry.attempts=2",
+        "app.kafka.bank-transfer.retry.delay=100",
+        "app.kafka.bank-transfer.replay.poll-timeout=2s"
+})
+@ActiveProfiles("test")
+class BankTransferDeadLetterIT {
+
+    @Container
+    static final KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"));
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry r) {
+        r.add("spring.kafka.bootstrap-servers", () -> kafka.getBootstrapServers().replaceFirst("(?i)^.*://", ""));
+        r.add("spring.kafka.listener.auto-startup", () -> "true");
+        r.add("spring.kafka.admin.auto-create", () -> "true");
+    }
+
+    @Autowired
+    KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    ConsumerFactory<String, String> consumerFactory;
+
+    @Autowired
+    ReservationRepository repo;
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @BeforeAll
+    static void createTopic() throws Exception {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers().replaceFirst("(?i)^.*://", ""));
+        try (AdminClient client = AdminClient.create(props)) {
+            client.createTopics(List.of(new NewTopic(KafkaConfig.BANK_TRANSFER_TOPIC, 1, (short) 1)))
+                    .all().get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void eventForMissingReservation_isRetriedThenDeadLetteredAndReplayable() {
+        long deadLettersBefore = deadLetterCount();
+
+        send("RDLT0001", "150.00");
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                assertThat(deadLetterCount()).isEqualTo(deadLettersBefore + 1));
+
+        repo.save(pendingBankTransfer("RDLT0001", "150.00"));
+        DeadLetterReplayResponse replay = rest.postForObject("/api/admin/bank-transfers/dead-letters/replay?max=100",
+                null, DeadLetterReplayResponse.class);
+
+        assertThat(replay.replayed()).isGreaterThanOrEqualTo(1);
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                assertThat(repo.findById("RDLT0001").orElseThrow().getStatus()).isEqualTo(ReservationStatus.CONFIRMED));
+    }
+
+    @Test
+    void unreadableEventsAndEventsWithoutPaymentId_goToTheDeadLetterTopic() {
+        repo.save(pendingBankTransfer("RDLT0002", "150.00"));
+        long deadLettersBefore = deadLetterCount();
+
+        kafkaTemplate.send(KafkaConfig.BANK_TRANSFER_TOPIC, "RDLT0002", "{\"debtorAccountnumber\":\"NL001234\","
+                + "\"amountReceived\":\"150.00\",\"transactionDescription\":\"1401541457 RDLT0002\"}");
+        kafkaTemplate.send(KafkaConfig.BANK_TRANSFER_TOPIC, "broken", "{not json");
+        kafkaTemplate.flush();
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                assertThat(deadLetterCount()).isGreaterThanOrEqualTo(deadLettersBefore + 2));
+        assertThat(repo.findById("RDLT0002").orElseThrow().getStatus()).isEqualTo(ReservationStatus.PENDING_PAYMENT);
+    }
+
+    private void send(String reservationId, String amount) {
+        String payload = "{\"paymentId\":\"PAY-" + reservationId + "\",\"debtorAccountnumber\":\"NL001234\",\"amountReceived\":\""
+                + amount + "\",\"transactionDescription\":\"1401541457 " + reservationId + "\"}";
+        kafkaTemplate.send(KafkaConfig.BANK_TRANSFER_TOPIC, reservationId, payload);
+        kafkaTemplate.flush();
+    }
+
+    private long deadLetterCount() {
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer("it-dlt-count", null)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(KafkaConfig.BANK_TRANSFER_DLT).stream()
+                    .map(p -> new TopicPartition(p.topic(), p.partition()))
+                    .toList();
+            return consumer.endOffsets(partitions).values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    private static Reservation pendingBankTransfer(String id, String amount) {
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setCustomerName("Test");
+        r.setRoomNumber("DLT-" + id);
+        r.setStartDate(LocalDate.now().plusDays(10));
+        r.setEndDate(LocalDate.now().plusDays(11));
+        r.setRoomSegment(RoomSegment.SMALL);
+        r.setPaymentMode(PaymentMode.BANK_TRANSFER);
+        r.setAmount(new BigDecimal(amount));
+        r.setCurrency("EUR");
+        r.setStatus(ReservationStatus.PENDING_PAYMENT);
+        return r;
+    }
+}
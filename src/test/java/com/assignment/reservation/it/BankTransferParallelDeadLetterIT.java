@@ -0,0 +1,122 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.service.ReservationService;
+
+// an event that keeps failing in parallel mode is dead-lettered by the container's error handler
+// after its retries, and the events behind it are still applied
+@Testcontainers
+@SpringBootTest(properties = {
+        "app.kafka.bank-transfer.mode=parallel",
+        "app.kafka.bank-transfer.retry.attempts=2",
+        "app.kafka.bank-transfer.retry.delay=100"
+})
+@ActiveProfiles("test")
+class BankTransferParallelDeadLetterIT {
+
+    @Container
+    static final KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"));
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry r) {
+        r.add("spring.kafka.bootstrap-servers", () -> kafka.getBootstrapServers().replaceFirst("(?i)^.*://", ""));
+        r.add("spring.kafka.listener.auto-startup", () -> "true");
+        r.add("spring.kafka.admin.auto-create", () -> "true");
+    }
+
+    @Autowired
+    KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    ConsumerFactory<String, String> consumerFactory;
+
+    @MockitoBean
+    ReservationService reservationService;
+
+    @BeforeAll
+    static void createTopic() throws Exception {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers().replaceFirst("(?i)^.*://", ""));
+        try (AdminClient client = AdminClient.create(props)) {
+            client.createTopics(List.of(new NewTopic(KafkaConfig.BANK_TRANSFER_TOPIC, 1, (short) 1)))
+                    .all().get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void failingEventIsRetriedThenDeadLetteredAndTheRestIsApplied() {
+        when(reservationService.markConfirmedIfAmountMatches(any(), eq("RPDL0001"), any()))
+                .thenThrow(new OptimisticLockingFailureException("kept changing"));
+        when(reservationService.markConfirmedIfAmountMatches(any(), eq("RPDL0002"), any()))
+                .thenReturn(BankTransferOutcome.CONFIRMED);
+
+        send("RPDL0001");
+        send("RPDL0002");
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                assertThat(deadLetters()).extracting(ConsumerRecord::value)
+                        .anySatisfy(v -> assertThat(v).contains("RPDL0001")));
+        // first delivery plus one retry
+        verify(reservationService, atLeast(2)).markConfirmedIfAmountMatches(eq("PAY-RPDL0001"), eq("RPDL0001"), any());
+        verify(reservationService, timeout(10_000)).markConfirmedIfAmountMatches(eq("PAY-RPDL0002"), eq("RPDL0002"), any());
+        assertThat(deadLetters()).extracting(ConsumerRecord::value).noneMatch(v -> v.contains("RPDL0002"));
+    }
+
+    private void send(String reservationId) {
+        String payload = "{\"paymentId\":\"PAY-" + reservationId + "\",\"debtorAccountnumber\":\"NL001234\",\"amountReceived\":\"50.00\","
+                + "\"transactionDescription\":\"1401541457 " + reservationId + "\"}";
+        kafkaTemplate.send(KafkaConfig.BANK_TRANSFER_TOPIC, reservationId, payload);
+        kafkaTemplate.flush();
+    }
+
+    private List<ConsumerRecord<String, String>> deadLetters() {
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer("it-parallel-dlt-read", null)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(KafkaConfig.BANK_TRANSFER_DLT).stream()
+                    .map(p -> new TopicPartition(p.topic(), p.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            List<ConsumerRecord<String, String>> records = new ArrayList<>();
+            consumer.poll(Duration.ofSeconds(2)).forEach(records::add);
+            return records;
+        }
+    }
+}
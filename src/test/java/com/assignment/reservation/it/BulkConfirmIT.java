@@ -0,0 +1,176 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.assignment.reservation.dto.BulkConfirmResult;
+import com.assignment.reservation.dto.PaymentStatusResponse;
+import com.assignment.reservation.exception.PaymentServiceUnavailableException;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.assignment.reservation.service.CreditCardClient;
+import com.assignment.reservation.service.RoomAvailabilityIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.task.scheduling.enabled=false",
+        "app.bulk.chunk-size=50",
+        "app.bulk.card-lookup-concurrency=8"
+})
+@ActiveProfiles("test")
+class BulkConfirmIT {
+
+    static final int ROOMS = 120;
+
+    @Autowired
+    TestRestTemplate rest;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    ReservationRepository repo;
+    @Autowired
+    RoomAvailabilityIndex availabilityIndex;
+    @MockitoBean
+    CreditCardClient creditCardClient;
+
+    @Test
+    void groupBookingFromNdjsonIsSavedAndStreamedBack() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(90);
+        String body = IntStream.range(0, ROOMS)
+                .mapToObj(i -> item("BULK-" + i, start, i % 2 == 0 ? "CASH" : "BANK_TRANSFER"))
+                .collect(Collectors.joining("\n"))
+                // the last line books BULK-0 again
+                + "\n" + item("BULK-0", start, "CASH");
+
+        List<BulkConfirmResult> results = post(body, MediaType.APPLICATION_NDJSON);
+
+        assertThat(results).hasSize(ROOMS + 1);
+        assertThat(results).filteredOn(r -> r.reservationId() != null).hasSize(ROOMS)
+                .allSatisfy(r -> assertThat(repo.findById(r.reservationId())).isPresent());
+        assertThat(results).filteredOn(r -> r.index() == ROOMS).singleElement()
+                .satisfies(r -> assertThat(r.error()).contains("already booked"));
+    }
+
+    @Test
+    void jsonArrayIsAcceptedToo() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(95);
+        String body = "[" + item("BULK-A1", start, "CASH") + "," + item("BULK-A2", start, "CASH") + "]";
+
+        List<BulkConfirmResult> results = post(body, MediaType.APPLICATION_JSON);
+
+        assertThat(results).extracting(BulkConfirmResult::reservationStatus).containsOnly("CONFIRMED");
+    }
+
+    @Test
+    void creditCardItemsAreCheckedConcurrentlyAndRejectedRoomsReleased() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(100);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        // CARD-OK-* is confirmed, CARD-NO-* rejected and CARD-DOWN-* fails, each after 50ms
+        when(creditCardClient.getPaymentStatus(anyString())).thenAnswer(i -> {
+            String ref = i.getArgument(0);
+            Mono<PaymentStatusResponse> answer = ref.startsWith("CARD-DOWN")
+                    ? Mono.error(new PaymentServiceUnavailableException("Credit card payment service unavailable", null))
+                    : Mono.just(new PaymentStatusResponse("2026-02-17T10:00:00Z", ref.startsWith("CARD-OK") ? "CONFIRMED" : "REJECTED"));
+            return Mono.delay(Duration.ofMillis(50))
+                    .doOnSubscribe(s -> peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                    .then(answer)
+                    .doFinally(signal -> inFlight.decrementAndGet());
+        });
+        String body = IntStream.range(0, 30)
+                .mapToObj(i -> cardItem("BULK-CARD-" + i, start, switch (i % 3) {
+                    case 0 -> "CARD-OK-" + i;
+                    case 1 -> "CARD-NO-" + i;
+                    default -> "CARD-DOWN-" + i;
+                }))
+                .collect(Collectors.joining("\n"));
+
+        List<BulkConfirmResult> results = post(body, MediaType.APPLICATION_NDJSON);
+
+        assertThat(results).hasSize(30);
+        assertThat(results).filteredOn(r -> r.index() % 3 == 0).hasSize(10)
+                .allSatisfy(r -> assertThat(r.reservationStatus()).isEqualTo("CONFIRMED"));
+        assertThat(results).filteredOn(r -> r.index() % 3 == 1).hasSize(10)
+                .allSatisfy(r -> assertThat(r.error()).contains("not confirmed"));
+        assertThat(results).filteredOn(r -> r.index() % 3 == 2).hasSize(10)
+                .allSatisfy(r -> assertThat(r.error()).contains("unavailable"));
+        assertThat(peakInFlight.get()).isBetween(2, 8);
+        for (int i = 0; i < 30; i++) {
+            assertThat(availabilityIndex.isAvailable("BULK-CARD-" + i, start, start.plusDays(2)))
+                    .as("room BULK-CARD-%d", i).isEqualTo(i % 3 != 0);
+        }
+    }
+
+    @Test
+    void creditCardItemWithoutReferenceIsRejectedAlone() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(105);
+        when(creditCardClient.getPaymentStatus(anyString()))
+                .thenReturn(Mono.just(new PaymentStatusResponse("2026-02-17T10:00:00Z", "CONFIRMED")));
+        String body = cardItem("BULK-REF-0", start, "CARD-OK-REF-0") + "\n"
+                + item("BULK-REF-1", start, "CREDIT_CARD") + "\n"
+                + cardItem("BULK-REF-2", start, "CARD-OK-REF-2");
+
+        List<BulkConfirmResult> results = post(body, MediaType.APPLICATION_NDJSON);
+
+        assertThat(results).hasSize(3);
+        assertThat(results).filteredOn(r -> r.index() != 1)
+                .allSatisfy(r -> assertThat(r.reservationStatus()).isEqualTo("CONFIRMED"));
+        assertThat(results).filteredOn(r -> r.index() == 1).singleElement()
+                .satisfies(r -> assertThat(r.error()).contains("paymentReference"));
+        assertThat(availabilityIndex.isAvailable("BULK-REF-1", start, start.plusDays(2))).isTrue();
+    }
+
+    private List<BulkConfirmResult> post(String body, MediaType contentType) throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> resp = rest.postForEntity("/api/reservations/bulk-confirm", new HttpEntity<>(body, headers),
+                String.class);
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return Arrays.stream(resp.getBody().split("\n"))
+                .filter(line -> !line.isBlank())
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, BulkConfirmResult.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    private static String cardItem(String room, LocalDate start, String paymentReference) {
+        return """
+                {"customerName":"Group","roomNumber":"%s","startDate":"%s","endDate":"%s","roomSegment":"SMALL",\
+                "paymentMode":"CREDIT_CARD","paymentReference":"%s","amount":100.00,"currency":"EUR"}"""
+                .formatted(room, start, start.plusDays(2), paymentReference);
+    }
+
+    private static String item(String room, LocalDate start, String paymentMode) {
+        return """
+                {"customerName":"Group","roomNumber":"%s","startDate":"%s","endDate":"%s","roomSegment":"SMALL",\
+                "paymentMode":"%s","amount":100.00,"currency":"EUR"}""".formatted(room, start, start.plusDays(2), paymentMode);
+    }
+}
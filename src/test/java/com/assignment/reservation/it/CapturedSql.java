@@ -0,0 +1,36 @@
+package com.assignment.reservation.it;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL Hibernate sends, so tests can look at the statement generated for a repository
+ * method. Enable it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=com.assignment.reservation.it.CapturedSql}.
+ */
+public class CapturedSql implements StatementInspector {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        STATEMENTS.clear();
+    }
+
+    // the last captured statement that reads from the given table
+    static String lastSelectFrom(String table) {
+        for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+            String sql = STATEMENTS.get(i);
+            if (sql.toLowerCase().startsWith("select") && sql.toLowerCase().contains(" from " + table + " ")) {
+                return sql;
+            }
+        }
+        throw new IllegalStateException("No select from " + table + " captured");
+    }
+}
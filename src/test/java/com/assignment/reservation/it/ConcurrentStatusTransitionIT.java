@@ -0,0 +1,102 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.assignment.reservation.service.ReservationService;
+
+/**
+ * Bank-transfer confirmations racing the cancellation sweep over the same pending reservations:
+ * whichever transition wins, the other must see it rather than overwrite it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ConcurrentStatusTransitionIT {
+
+    static final int RESERVATIONS = 100;
+
+    @Autowired
+    ReservationService service;
+    @Autowired
+    ReservationRepository repo;
+
+    @Test
+    void paymentAndCancellationNeverOverwriteEachOther() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            String id = "RRACE%03d".formatted(i);
+            repo.save(pending(id));
+            ids.add(id);
+        }
+        Map<String, BankTransferOutcome> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(4)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            tasks.add(pool.submit(() -> {
+                start.await();
+                return service.cancelStaleBankTransferReservations(LocalDate.now().plusDays(2), 10);
+            }));
+            for (int t = 0; t < 3; t++) {
+                int offset = t;
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = offset; i < RESERVATIONS; i += 3) {
+                        outcomes.put(ids.get(i), service.markConfirmedIfAmountMatches("PAY-" + ids.get(i), ids.get(i), new BigDecimal("50.00")));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+
+        for (String id : ids) {
+            Reservation r = repo.findById(id).orElseThrow();
+            if (outcomes.get(id) == BankTransferOutcome.CONFIRMED) {
+                assertThat(r.getStatus()).as(id).isEqualTo(ReservationStatus.CONFIRMED);
+            } else {
+                assertThat(outcomes.get(id)).as(id).isEqualTo(BankTransferOutcome.NOT_ELIGIBLE);
+                assertThat(r.getStatus()).as(id).isEqualTo(ReservationStatus.CANCELLED);
+            }
+        }
+    }
+
+    private static Reservation pending(String id) {
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setCustomerName("Race");
+        r.setRoomNumber("RACE-" + id);
+        r.setStartDate(LocalDate.now().plusDays(1));
+        r.setEndDate(LocalDate.now().plusDays(2));
+        r.setRoomSegment(RoomSegment.SMALL);
+        r.setPaymentMode(PaymentMode.BANK_TRANSFER);
+        r.setAmount(new BigDecimal("50.00"));
+        r.setCurrency("EUR");
+        r.setStatus(ReservationStatus.PENDING_PAYMENT);
+        return r;
+    }
+}
@@ -0,0 +1,111 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.assignment.reservation.dto.PaymentStatusResponse;
+import com.assignment.reservation.service.CreditCardClient;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Fires a burst of concurrent credit-card confirmations against a slow (mocked) payment provider
+ * and records p99 latency plus the peak number of provider calls in flight. Subclasses boot the
+ * application with virtual threads switched on or off and check their p99 against the same
+ * {@link #CAPPED_P99_FLOOR}, so the two runs are compared by assertion, not by eye. The numbers are
+ * published as report entries of the test (see the failsafe XML report).
+ */
+abstract class ConfirmLoadTestSupport {
+
+    static final int REQUESTS = 200;
+    static final int TOMCAT_THREADS = 20;
+    static final Duration PROVIDER_DELAY = Duration.ofMillis(200);
+    // with requests capped at TOMCAT_THREADS they run in REQUESTS / TOMCAT_THREADS waves of one provider
+    // delay each; the p99 request is in the last wave, so it waits at least for all waves but one
+    static final Duration CAPPED_P99_FLOOR = PROVIDER_DELAY.multipliedBy(REQUESTS / TOMCAT_THREADS - 1);
+
+    @LocalServerPort
+    int port;
+
+    @MockitoBean
+    CreditCardClient creditCardClient;
+
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger maxInFlight = new AtomicInteger();
+
+    record LoadResult(long p99Millis, int maxInFlight) {
+    }
+
+    @BeforeEach
+    void slowPaymentProvider() {
+        when(creditCardClient.getPaymentStatus(anyString())).thenAnswer(i -> Mono.delay(PROVIDER_DELAY)
+                .map(t -> new PaymentStatusResponse("2026-02-01T00:00:00Z", "CONFIRMED"))
+                .doOnSubscribe(s -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .doFinally(s -> inFlight.decrementAndGet()));
+    }
+
+    LoadResult runLoad(String mode, TestReporter reporter) throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> calls = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                HttpRequest request = confirmRequest(mode + "-" + i);
+                calls.add(clients.submit(() -> {
+                    long start = System.nanoTime();
+                    HttpResponse<String> resp = http.send(request, HttpResponse.BodyHandlers.ofString());
+                    latencies.add((System.nanoTime() - start) / 1_000_000);
+                    return resp.statusCode();
+                }));
+            }
+            for (Future<Integer> call : calls) {
+                assertThat(call.get()).isEqualTo(200);
+            }
+        }
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+        LoadResult result = new LoadResult(p99, maxInFlight.get());
+        reporter.publishEntry(Map.of(
+                mode + ".requests", String.valueOf(REQUESTS),
+                mode + ".p99.ms", String.valueOf(result.p99Millis()),
+                mode + ".max.in.flight", String.valueOf(result.maxInFlight())));
+        return result;
+    }
+
+    private HttpRequest confirmRequest(String roomNumber) {
+        LocalDate start = LocalDate.now().plusDays(10);
+        String body = """
+                {"customerName":"Load","roomNumber":"%s","startDate":"%s","endDate":"%s",
+                 "roomSegment":"SMALL","paymentMode":"CREDIT_CARD","paymentReference":"LOAD-%s",
+                 "amount":"100.00","currency":"EUR"}
+                """.formatted(roomNumber, start, start.plusDays(1), roomNumber);
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/reservations/confirm"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
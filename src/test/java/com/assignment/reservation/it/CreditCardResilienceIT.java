@@ -0,0 +1,168 @@
+package com.assignment.reservation.it;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.assignment.reservation.dto.ConfirmReservationRequest;
+import com.assignment.reservation.dto.PaymentStatusResponse;
+import com.assignment.reservation.exception.PaymentNotConfirmedException;
+import com.assignment.reservation.exception.PaymentServiceUnavailableException;
+import com.assignment.reservation.service.CreditCardClient;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+/**
+ * Runs {@link CreditCardClient} against the stubs in wiremock/mappings plus delayed stubs, with a
+ * 1s time limiter, 200ms hedge delay and a two-call circuit-breaker window.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.credit-card.payment-service-url=http://localhost:8090" + CreditCardResilienceIT.PATH,
+        "app.credit-card.hedge.enabled=true",
+        "app.credit-card.hedge.delay=200ms",
+        "resilience4j.timelimiter.instances.credit-card.timeout-duration=1s",
+        "resilience4j.circuitbreaker.instances.credit-card.sliding-window-size=2",
+        "resilience4j.circuitbreaker.instances.credit-card.minimum-number-of-calls=2"
+})
+@ActiveProfiles("test")
+class CreditCardResilienceIT {
+
+    static final String PATH = "/host/credit-card-payment-api/payment-status";
+    static final String CONFIRMED = "{\"lastUpdateDate\":\"2026-02-10T00:00:00Z\",\"status\":\"CONFIRMED\"}";
+
+    static WireMockServer wireMock = new WireMockServer(
+            WireMockConfiguration.options().port(8090).usingFilesUnderDirectory("wiremock"));
+
+    @Autowired
+    CreditCardClient client;
+    @Autowired
+    CircuitBreakerRegistry circuitBreakers;
+    @Autowired
+    TestRestTemplate rest;
+
+    @BeforeAll
+    static void beforeAll() {
+        wireMock.start();
+        wireMock.stubFor(post(urlEqualTo(PATH))
+                .withRequestBody(matchingJsonPath("$.paymentReference", equalTo("SLOW_REF")))
+                .willReturn(okJson(CONFIRMED).withFixedDelay(3000)));
+        // first request for HEDGE_REF is slow, any later one answers at once
+        wireMock.stubFor(post(urlEqualTo(PATH)).inScenario("hedge").whenScenarioStateIs(STARTED)
+                .withRequestBody(matchingJsonPath("$.paymentReference", equalTo("HEDGE_REF")))
+                .willReturn(okJson(CONFIRMED).withFixedDelay(1500))
+                .willSetStateTo("hedged"));
+        wireMock.stubFor(post(urlEqualTo(PATH)).inScenario("hedge").whenScenarioStateIs("hedged")
+                .withRequestBody(matchingJsonPath("$.paymentReference", equalTo("HEDGE_REF")))
+                .willReturn(okJson(CONFIRMED)));
+        wireMock.stubFor(post(urlEqualTo(PATH))
+                .withRequestBody(matchingJsonPath("$.paymentReference", equalTo("UNKNOWN_REF")))
+                .willReturn(aResponse().withStatus(404)));
+        wireMock.stubFor(post(urlEqualTo(PATH))
+                .withRequestBody(matchingJsonPath("$.paymentReference", equalTo("BROKEN_REF")))
+                .willReturn(aResponse().withStatus(500)));
+    }
+
+    @AfterAll
+    static void afterAll() {
+        wireMock.stop();
+    }
+
+    @BeforeEach
+    void reset() {
+        circuitBreakers.circuitBreaker("credit-card").reset();
+        wireMock.resetScenarios();
+    }
+
+    @Test
+    void fileMappingsAnswerConfirmedAndRejected() {
+        assertThat(client.getPaymentStatus("CONFIRM_REF").block().status()).isEqualTo("CONFIRMED");
+        assertThat(client.getPaymentStatus("ANY_OTHER_REF").block().status()).isEqualTo("REJECTED");
+    }
+
+    @Test
+    void hedgedRequestAnswersBeforeSlowPrimary() {
+        long start = System.nanoTime();
+        PaymentStatusResponse resp = client.getPaymentStatus("HEDGE_REF").block();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(resp.status()).isEqualTo("CONFIRMED");
+        assertThat(elapsedMillis).isLessThan(1000);
+    }
+
+    @Test
+    void slowProviderTimesOutAndOpensCircuit() {
+        assertThatThrownBy(() -> client.getPaymentStatus("SLOW_REF").block())
+                .isInstanceOf(PaymentServiceUnavailableException.class);
+        assertThatThrownBy(() -> client.getPaymentStatus("SLOW_REF").block())
+                .isInstanceOf(PaymentServiceUnavailableException.class);
+
+        // open circuit: fails fast without reaching the provider
+        assertThatThrownBy(() -> client.getPaymentStatus("AFTER_OPEN_REF").block())
+                .isInstanceOf(PaymentServiceUnavailableException.class)
+                .hasCauseInstanceOf(CallNotPermittedException.class);
+        assertThat(wireMock.findAll(postRequestedFor(urlEqualTo(PATH))
+                .withRequestBody(matchingJsonPath("$.paymentReference", equalTo("AFTER_OPEN_REF"))))).isEmpty();
+    }
+
+    @Test
+    void clientErrorIsNotConfirmedAndLeavesCircuitClosed() {
+        assertThatThrownBy(() -> client.getPaymentStatus("UNKNOWN_REF").block())
+                .isInstanceOf(PaymentNotConfirmedException.class);
+        assertThatThrownBy(() -> client.getPaymentStatus("UNKNOWN_REF").block())
+                .isInstanceOf(PaymentNotConfirmedException.class);
+
+        assertThat(circuitBreakers.circuitBreaker("credit-card").getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(client.getPaymentStatus("CONFIRM_REF").block().status()).isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    void serverErrorIsUnavailable() {
+        assertThatThrownBy(() -> client.getPaymentStatus("BROKEN_REF").block())
+                .isInstanceOf(PaymentServiceUnavailableException.class);
+    }
+
+    @Test
+    void missingReferenceIsRejectedWithoutCallingTheProvider() {
+        int before = wireMock.findAll(postRequestedFor(urlEqualTo(PATH))).size();
+
+        for (String endpoint : new String[] {"/api/reservations/confirm", "/api/reservations/confirm-async"}) {
+            for (String reference : new String[] {null, " "}) {
+                ResponseEntity<String> response = rest.postForEntity(endpoint, cardConfirm(reference), String.class);
+                assertThat(response.getStatusCode()).as(endpoint + " ref=" + reference).isEqualTo(HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        assertThat(wireMock.findAll(postRequestedFor(urlEqualTo(PATH)))).hasSize(before);
+    }
+
+    private static ConfirmReservationRequest cardConfirm(String paymentReference) {
+        return new ConfirmReservationRequest("NoRef", "NOREF-1", LocalDate.now().plusDays(40),
+                LocalDate.now().plusDays(41), "SMALL", "CREDIT_CARD", paymentReference,
+                new BigDecimal("80.00"), "EUR");
+    }
+}
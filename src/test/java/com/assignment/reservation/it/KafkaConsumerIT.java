@@ -44,6 +44,7 @@ class KafkaConsumerIT {
     static void registerProps(DynamicPropertyRegistry r) {
         r.add("spring.kafka.bootstrap-servers", () -> kafka.getBootstrapServers().replaceFirst("(?i)^.*://", ""));
         r.add("spring.kafka.listener.auto-startup", () -> "true"); // <--- enable listeners for test
+        r.add("spring.kafka.admin.auto-create", () -> "true"); // retry and dead-letter topics
     }
 
     @Autowired
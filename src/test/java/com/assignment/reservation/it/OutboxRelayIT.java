@@ -0,0 +1,80 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.dto.ConfirmReservationRequest;
+import com.assignment.reservation.dto.ConfirmReservationResponse;
+import com.assignment.reservation.repository.OutboxEventRepository;
+import com.assignment.reservation.service.ReservationService;
+
+@Testcontainers
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=true",
+        "app.outbox.relay.interval=200",
+        "spring.kafka.admin.auto-create=true"
+})
+@ActiveProfiles("test")
+class OutboxRelayIT {
+
+    @Container
+    static final KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"));
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry r) {
+        r.add("spring.kafka.bootstrap-servers", () -> kafka.getBootstrapServers().replaceFirst("(?i)^.*://", ""));
+    }
+
+    @Autowired
+    ReservationService service;
+
+    @Autowired
+    OutboxEventRepository outbox;
+
+    @Autowired
+    ConsumerFactory<String, String> consumerFactory;
+
+    @Test
+    void statusChangesArePublishedKeyedByReservationAndOutboxIsDrained() {
+        LocalDate start = LocalDate.now().plusDays(20);
+        ConfirmReservationResponse resp = service.confirm(new ConfirmReservationRequest("Outbox", "OUTBOX-1",
+                start, start.plusDays(1), "SMALL", "CASH", null, new BigDecimal("80.00"), "EUR"));
+
+        List<ConsumerRecord<String, String>> received = new ArrayList<>();
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer("it-outbox", null)) {
+            consumer.subscribe(List.of(KafkaConfig.RESERVATION_STATUS_TOPIC));
+            await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+                consumer.poll(Duration.ofMillis(500)).forEach(received::add);
+                assertThat(received).anyMatch(r -> r.key().equals(resp.reservationId()));
+            });
+        }
+
+        ConsumerRecord<String, String> event = received.stream()
+                .filter(r -> r.key().equals(resp.reservationId()))
+                .findFirst().orElseThrow();
+        assertThat(event.value()).contains("\"status\":\"CONFIRMED\"").contains(resp.reservationId());
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(outbox.findAll()).noneMatch(e -> e.getAggregateId().equals(resp.reservationId())));
+    }
+}
@@ -0,0 +1,154 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.assignment.reservation.dto.BankTransferEvent;
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.entity.BankTransferPayment;
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+import com.assignment.reservation.repository.BankTransferPaymentRepository;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.assignment.reservation.service.ReservationService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentLedgerIT {
+
+    @Autowired
+    ReservationService service;
+    @Autowired
+    ReservationRepository repo;
+    @Autowired
+    BankTransferPaymentRepository payments;
+
+    @Test
+    void partialPaymentsAddUpAndRedeliveriesCountOnce() {
+        repo.save(pending("RLEDG001", "100.00"));
+
+        assertThat(service.markConfirmedIfAmountMatches("PAY-LEDG-1", "RLEDG001", new BigDecimal("50.00")))
+                .isEqualTo(BankTransferOutcome.PARTIALLY_PAID);
+        // redelivery of the first half must not complete the payment
+        assertThat(service.markConfirmedIfAmountMatches("PAY-LEDG-1", "RLEDG001", new BigDecimal("50.00")))
+                .isEqualTo(BankTransferOutcome.DUPLICATE);
+        assertThat(repo.findById("RLEDG001").orElseThrow().getStatus()).isEqualTo(ReservationStatus.PENDING_PAYMENT);
+
+        assertThat(service.markConfirmedIfAmountMatches("PAY-LEDG-2", "RLEDG001", new BigDecimal("50.00")))
+                .isEqualTo(BankTransferOutcome.CONFIRMED);
+        assertThat(repo.findById("RLEDG001").orElseThrow().getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(payments.totalReceived("RLEDG001")).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void batchAddsToEarlierPaymentsAndSkipsRepeatedIds() {
+        repo.save(pending("RLEDG002", "90.00"));
+        repo.save(pending("RLEDG003", "90.00"));
+        service.markConfirmedIfAmountMatches("PAY-LEDG-3", "RLEDG002", new BigDecimal("30.00"));
+
+        List<BankTransferOutcome> outcomes = service.applyBankTransfers(List.of(
+                new BankTransferEvent("PAY-LEDG-3", "RLEDG002", new BigDecimal("30.00")),
+                new BankTransferEvent("PAY-LEDG-4", "RLEDG003", new BigDecimal("45.00")),
+                new BankTransferEvent("PAY-LEDG-4", "RLEDG003", new BigDecimal("45.00")),
+                new BankTransferEvent("PAY-LEDG-5", "RLEDG002", new BigDecimal("60.00"))));
+
+        assertThat(outcomes).containsExactly(BankTransferOutcome.DUPLICATE, BankTransferOutcome.PARTIALLY_PAID,
+                BankTransferOutcome.DUPLICATE, BankTransferOutcome.CONFIRMED);
+        assertThat(repo.findById("RLEDG002").orElseThrow().getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(repo.findById("RLEDG003").orElseThrow().getStatus()).isEqualTo(ReservationStatus.PENDING_PAYMENT);
+        assertThat(payments.totalReceived("RLEDG003")).isEqualByComparingTo("45.00");
+    }
+
+    @Test
+    void paymentRecordedElsewhereIsDuplicateEvenWithColdFilter() {
+        repo.save(pending("RLEDG004", "100.00"));
+        repo.save(pending("RLEDG005", "100.00"));
+        // written past the ledger, as by the instance that owned the partition before a rebalance
+        payments.save(new BankTransferPayment("PAY-LEDG-6", "RLEDG004", new BigDecimal("100.00"), Instant.now()));
+        payments.save(new BankTransferPayment("PAY-LEDG-7", "RLEDG005", new BigDecimal("40.00"), Instant.now()));
+
+        assertThat(service.markConfirmedIfAmountMatches("PAY-LEDG-6", "RLEDG004", new BigDecimal("100.00")))
+                .isEqualTo(BankTransferOutcome.DUPLICATE);
+        List<BankTransferOutcome> outcomes = service.applyBankTransfers(List.of(
+                new BankTransferEvent("PAY-LEDG-7", "RLEDG005", new BigDecimal("40.00")),
+                new BankTransferEvent("PAY-LEDG-8", "RLEDG005", new BigDecimal("60.00"))));
+
+        assertThat(outcomes).containsExactly(BankTransferOutcome.DUPLICATE, BankTransferOutcome.CONFIRMED);
+        assertThat(repo.findById("RLEDG004").orElseThrow().getStatus()).isEqualTo(ReservationStatus.PENDING_PAYMENT);
+        assertThat(repo.findById("RLEDG005").orElseThrow().getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(payments.totalReceived("RLEDG004")).isEqualByComparingTo("100.00");
+        assertThat(payments.totalReceived("RLEDG005")).isEqualByComparingTo("100.00");
+    }
+
+    @Test
+    void concurrentHalfPaymentsConfirmTheReservation() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String id = "RHALF%03d".formatted(i);
+            repo.save(pending(id, "100.00"));
+            ids.add(id);
+        }
+        Map<String, List<BankTransferOutcome>> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (String half : List.of("A", "B")) {
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    for (String id : ids) {
+                        BankTransferOutcome outcome = service.markConfirmedIfAmountMatches(
+                                "PAY-" + half + "-" + id, id, new BigDecimal("50.00"));
+                        outcomes.computeIfAbsent(id, k -> new CopyOnWriteArrayList<>()).add(outcome);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        }
+
+        for (String id : ids) {
+            assertThat(outcomes.get(id)).as(id)
+                    .containsExactlyInAnyOrder(BankTransferOutcome.PARTIALLY_PAID, BankTransferOutcome.CONFIRMED);
+            assertThat(repo.findById(id).orElseThrow().getStatus()).as(id).isEqualTo(ReservationStatus.CONFIRMED);
+            assertThat(payments.totalReceived(id)).as(id).isEqualByComparingTo("100.00");
+        }
+    }
+
+    private static Reservation pending(String id, String amount) {
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setCustomerName("Ledger");
+        r.setRoomNumber("LEDG-" + id);
+        r.setStartDate(LocalDate.now().plusDays(20));
+        r.setEndDate(LocalDate.now().plusDays(21));
+        r.setRoomSegment(RoomSegment.SMALL);
+        r.setPaymentMode(PaymentMode.BANK_TRANSFER);
+        r.setAmount(new BigDecimal(amount));
+        r.setCurrency("EUR");
+        r.setStatus(ReservationStatus.PENDING_PAYMENT);
+        return r;
+    }
+}
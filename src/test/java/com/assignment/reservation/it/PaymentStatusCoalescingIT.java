@@ -0,0 +1,75 @@
+package com.assignment.reservation.it;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.assignment.reservation.dto.PaymentStatusResponse;
+import com.assignment.reservation.service.CreditCardClient;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Uses the payment-confirm.json / payment-reject.json mappings, slowed down so that concurrent
+ * lookups overlap.
+ */
+@SpringBootTest(properties = "app.credit-card.payment-service-url=http://localhost:8091" + PaymentStatusCoalescingIT.PATH)
+@ActiveProfiles("test")
+class PaymentStatusCoalescingIT {
+
+    static final String PATH = "/host/credit-card-payment-api/payment-status";
+
+    static WireMockServer wireMock = new WireMockServer(
+            WireMockConfiguration.options().port(8091).usingFilesUnderDirectory("wiremock"));
+
+    @Autowired
+    CreditCardClient client;
+
+    @BeforeAll
+    static void beforeAll() {
+        wireMock.start();
+        wireMock.setGlobalFixedDelay(300);
+    }
+
+    @AfterAll
+    static void afterAll() {
+        wireMock.stop();
+    }
+
+    @Test
+    void concurrentLookupsForSameReferenceShareOneProviderCall() {
+        List<PaymentStatusResponse> answers = Flux.range(0, 20)
+                .flatMap(i -> client.getPaymentStatus("CONFIRM_REF"))
+                .collectList()
+                .block();
+
+        assertThat(answers).hasSize(20).allMatch(r -> "CONFIRMED".equals(r.status()));
+        assertThat(providerCalls("CONFIRM_REF")).isEqualTo(1);
+    }
+
+    @Test
+    void terminalAnswerIsReusedForRetries() {
+        assertThat(client.getPaymentStatus("RETRIED_REF").block().status()).isEqualTo("REJECTED");
+        assertThat(client.getPaymentStatus("RETRIED_REF").block().status()).isEqualTo("REJECTED");
+
+        assertThat(providerCalls("RETRIED_REF")).isEqualTo(1);
+    }
+
+    private int providerCalls(String paymentReference) {
+        return wireMock.findAll(postRequestedFor(urlEqualTo(PATH))
+                .withRequestBody(matchingJsonPath("$.paymentReference", equalTo(paymentReference)))).size();
+    }
+}
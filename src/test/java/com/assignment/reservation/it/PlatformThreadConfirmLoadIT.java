@@ -0,0 +1,24 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=false",
+        "server.tomcat.threads.max=" + ConfirmLoadTestSupport.TOMCAT_THREADS
+})
+@ActiveProfiles("test")
+class PlatformThreadConfirmLoadIT extends ConfirmLoadTestSupport {
+
+    @Test
+    void creditCardConfirmationsAreCappedByTomcatPool(TestReporter reporter) throws Exception {
+        LoadResult result = runLoad("platform-threads", reporter);
+
+        assertThat(result.maxInFlight()).isLessThanOrEqualTo(TOMCAT_THREADS);
+        assertThat(result.p99Millis()).isGreaterThanOrEqualTo(CAPPED_P99_FLOOR.toMillis());
+    }
+}
@@ -0,0 +1,85 @@
+package com.assignment.reservation.it;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.repository.ReservationRepository;
+
+/**
+ * Fills the reservations table with mostly settled reservations and analyses it, so the planner
+ * works from realistic statistics, then explains the SQL Hibernate generates for the repository
+ * queries. Subclasses run it against one database and pass
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector} = {@link CapturedSql}.
+ */
+abstract class QueryPlanTestSupport {
+
+    static final String STATEMENT_INSPECTOR =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.assignment.reservation.it.CapturedSql";
+    static final LocalDate SWEEP_CUTOFF = LocalDate.of(2100, 1, 1);
+    static final int SWEEP_CHUNK = 500;
+
+    @Autowired
+    JdbcTemplate jdbc;
+    @Autowired
+    ReservationRepository repo;
+
+    @BeforeEach
+    void fillTable() {
+        LocalDate start = LocalDate.now().plusDays(200);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < rows(); i++) {
+            boolean pending = i % pendingEvery() == 0;
+            rows.add(new Object[] {"QP%06d".formatted(i), "Plan", "QP-" + (i % 250), Date.valueOf(start.plusDays(i % 30)),
+                    Date.valueOf(start.plusDays(i % 30 + 2)), pending ? "BANK_TRANSFER" : "CASH",
+                    pending ? "PENDING_PAYMENT" : "CONFIRMED"});
+        }
+        jdbc.batchUpdate("INSERT INTO reservations (id, customer_name, room_number, start_date, end_date, room_segment, "
+                + "payment_mode, amount, status, currency, version) VALUES (?, ?, ?, ?, ?, 'SMALL', ?, 100, ?, 'EUR', 0)", rows);
+        analyze();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbc.update("DELETE FROM reservations WHERE id LIKE 'QP%'");
+    }
+
+    /** Plan of the cancellation sweep's keyset page, as Hibernate generates it. */
+    String sweepPlan() {
+        CapturedSql.clear();
+        repo.findByStatusAndPaymentModeAndStartDateBeforeAndIdGreaterThanOrderByIdAsc(ReservationStatus.PENDING_PAYMENT,
+                PaymentMode.BANK_TRANSFER, SWEEP_CUTOFF, "", Limit.of(SWEEP_CHUNK));
+        String sql = CapturedSql.lastSelectFrom("reservations");
+        return explain(sql, bind(sql, ReservationStatus.PENDING_PAYMENT.name(), PaymentMode.BANK_TRANSFER.name(),
+                Date.valueOf(SWEEP_CUTOFF), "", SWEEP_CHUNK));
+    }
+
+    int rows() {
+        return 5_000;
+    }
+
+    // one unpaid bank transfer per this many rows
+    int pendingEvery() {
+        return 20;
+    }
+
+    abstract void analyze();
+
+    abstract String explain(String sql, Object... args);
+
+    // parameters in the order of the method's arguments; a dialect may render the limit as a literal
+    private static Object[] bind(String sql, Object... args) {
+        int placeholders = (int) sql.chars().filter(c -> c == '?').count();
+        return Arrays.copyOf(args, placeholders);
+    }
+}
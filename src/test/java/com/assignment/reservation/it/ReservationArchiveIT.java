@@ -0,0 +1,78 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+import com.assignment.reservation.repository.ArchivedReservationRepository;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.assignment.reservation.service.ReservationArchiver;
+import com.assignment.reservation.service.ReservationService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationArchiveIT {
+
+    // far in the past, so rows written by other tests in the shared database are never archived here
+    static final LocalDate CUTOFF = LocalDate.now().minusYears(5);
+
+    @Autowired
+    ReservationArchiver archiver;
+    @Autowired
+    ReservationService service;
+    @Autowired
+    ReservationRepository repo;
+    @Autowired
+    ArchivedReservationRepository archive;
+
+    @Test
+    void movesFinishedStaysInBatchesAndKeepsThemReadable() {
+        for (int i = 0; i < 5; i++) {
+            repo.save(reservation("RARC%03d".formatted(i), CUTOFF.minusDays(10 + i), ReservationStatus.CONFIRMED));
+        }
+        repo.save(reservation("RARCCAN", CUTOFF.minusDays(3), ReservationStatus.CANCELLED));
+        repo.save(reservation("RARCPEN", CUTOFF.minusDays(3), ReservationStatus.PENDING_PAYMENT));
+        repo.save(reservation("RARCNEW", CUTOFF.plusDays(3), ReservationStatus.CONFIRMED));
+
+        int archived = archiver.archiveEndedBefore(CUTOFF, 2);
+
+        assertThat(archived).isEqualTo(6);
+        assertThat(repo.findById("RARC000")).isEmpty();
+        assertThat(repo.findById("RARCCAN")).isEmpty();
+        assertThat(archive.findById("RARC004")).hasValueSatisfying(a -> {
+            assertThat(a.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+            assertThat(a.getAmount()).isEqualByComparingTo("120.00");
+            assertThat(a.getArchivedAt()).isNotNull();
+        });
+        // not final yet, or not ended before the cutoff
+        assertThat(repo.findById("RARCPEN")).isPresent();
+        assertThat(repo.findById("RARCNEW")).isPresent();
+
+        assertThat(service.getById("RARCCAN").getStatus()).isEqualTo(ReservationStatus.CANCELLED);
+    }
+
+    private static Reservation reservation(String id, LocalDate endDate, ReservationStatus status) {
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setCustomerName("Archive");
+        r.setRoomNumber("A-1");
+        r.setStartDate(endDate.minusDays(2));
+        r.setEndDate(endDate);
+        r.setRoomSegment(RoomSegment.SMALL);
+        r.setPaymentMode(PaymentMode.BANK_TRANSFER);
+        r.setAmount(new BigDecimal("120.00"));
+        r.setStatus(status);
+        r.setCurrency("EUR");
+        return r;
+    }
+}
@@ -0,0 +1,92 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.testcontainers.containers.KafkaContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.assignment.reservation.RoomReservationServiceApplication;
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.assignment.reservation.service.ReservationService;
+
+/**
+ * Two application contexts on one named H2 database and one broker stand in for two instances:
+ * a reservation cached by one of them must not stay {@code PENDING_PAYMENT} there once the other
+ * has confirmed it.
+ */
+@Testcontainers
+class ReservationCacheAcrossInstancesIT {
+
+    @Container
+    static final KafkaContainer kafka = new KafkaContainer(DockerImageName.parse("confluentinc/cp-kafka:7.5.0"));
+
+    @Test
+    void confirmationOnOneInstanceEvictsTheOtherInstancesCache() {
+        String url = "jdbc:h2:mem:cache-two-apps-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        try (ConfigurableApplicationContext a = start(url);
+             ConfigurableApplicationContext b = start(url)) {
+            a.getBean(ReservationRepository.class).save(pending("RCACHE02"));
+            ReservationService reader = b.getBean(ReservationService.class);
+            assertThat(reader.getById("RCACHE02").getStatus()).isEqualTo(ReservationStatus.PENDING_PAYMENT);
+
+            a.getBean(ReservationService.class)
+                    .markConfirmedIfAmountMatches("PAY-RCACHE02", "RCACHE02", new BigDecimal("90.00"));
+
+            // well within the 60s expireAfterWrite, so only the relayed event can have evicted it
+            await().atMost(Duration.ofSeconds(20)).untilAsserted(() ->
+                    assertThat(reader.getById("RCACHE02").getStatus()).isEqualTo(ReservationStatus.CONFIRMED));
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String url) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RoomReservationServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "spring.kafka.bootstrap-servers=" + kafka.getBootstrapServers().replaceFirst("(?i)^.*://", ""),
+                        "spring.kafka.listener.auto-startup=true",
+                        "spring.kafka.admin.auto-create=true",
+                        "app.outbox.relay.enabled=true",
+                        "app.outbox.relay.interval=200")
+                .run();
+        // the refresher starts at the latest offset, so it has to be assigned before anything is published
+        KafkaListenerEndpointRegistry listeners = context.getBean(KafkaListenerEndpointRegistry.class);
+        await().atMost(Duration.ofSeconds(30)).until(() -> listeners.getListenerContainers().stream()
+                .anyMatch(c -> c.getAssignedPartitions() != null && c.getAssignedPartitions().stream()
+                        .anyMatch(tp -> tp.topic().equals(KafkaConfig.RESERVATION_STATUS_TOPIC))));
+        return context;
+    }
+
+    private static Reservation pending(String id) {
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setCustomerName("Cache");
+        r.setRoomNumber("CACHE-" + id);
+        r.setStartDate(LocalDate.now().plusDays(7));
+        r.setEndDate(LocalDate.now().plusDays(8));
+        r.setRoomSegment(RoomSegment.SMALL);
+        r.setPaymentMode(PaymentMode.BANK_TRANSFER);
+        r.setAmount(new BigDecimal("90.00"));
+        r.setCurrency("EUR");
+        r.setStatus(ReservationStatus.PENDING_PAYMENT);
+        return r;
+    }
+}
@@ -0,0 +1,54 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.assignment.reservation.service.ReservationCacheEvictor;
+import com.assignment.reservation.service.ReservationService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationCacheIT {
+
+    @Autowired
+    ReservationService service;
+    @Autowired
+    ReservationRepository repo;
+    @Autowired
+    CacheManager cacheManager;
+
+    @Test
+    void confirmationEvictsCachedPendingReservation() {
+        Reservation pending = new Reservation();
+        pending.setId("RCACHE01");
+        pending.setCustomerName("Cache");
+        pending.setRoomNumber("300");
+        pending.setStartDate(LocalDate.now().plusDays(7));
+        pending.setEndDate(LocalDate.now().plusDays(8));
+        pending.setPaymentMode(PaymentMode.BANK_TRANSFER);
+        pending.setAmount(new BigDecimal("90.00"));
+        pending.setCurrency("EUR");
+        pending.setStatus(ReservationStatus.PENDING_PAYMENT);
+        repo.save(pending);
+
+        assertThat(service.getById("RCACHE01").getStatus()).isEqualTo(ReservationStatus.PENDING_PAYMENT);
+        assertThat(cacheManager.getCache(ReservationCacheEvictor.CACHE_NAME).get("RCACHE01")).isNotNull();
+
+        service.markConfirmedIfAmountMatches("PAY-RCACHE01", "RCACHE01", new BigDecimal("90.00"));
+
+        assertThat(cacheManager.getCache(ReservationCacheEvictor.CACHE_NAME).get("RCACHE01")).isNull();
+        assertThat(service.getById("RCACHE01").getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+    }
+}
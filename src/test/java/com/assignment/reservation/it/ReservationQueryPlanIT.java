@@ -0,0 +1,40 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Checks with H2's EXPLAIN that the queries behind the cancellation sweep and the room lookups use
+ * the indexes from the Flyway migrations instead of scanning the table. See
+ * {@link ReservationQueryPlanPostgresIT} for the PostgreSQL plans.
+ */
+@SpringBootTest(properties = QueryPlanTestSupport.STATEMENT_INSPECTOR)
+@ActiveProfiles("test")
+class ReservationQueryPlanIT extends QueryPlanTestSupport {
+
+    @Test
+    void cancellationSweepUsesStatusModeStartIndex() {
+        assertThat(sweepPlan()).containsIgnoringCase("IX_RESERVATIONS_STATUS_MODE_START");
+    }
+
+    @Test
+    void roomLookupUsesRoomDatesIndex() {
+        String plan = explain("SELECT * FROM reservations WHERE room_number = 'QP-7' "
+                + "AND start_date <= DATE '2100-01-01' AND end_date >= DATE '2000-01-01'");
+
+        assertThat(plan).containsIgnoringCase("IX_RESERVATIONS_ROOM_DATES");
+    }
+
+    @Override
+    void analyze() {
+        jdbc.execute("ANALYZE TABLE reservations");
+    }
+
+    @Override
+    String explain(String sql, Object... args) {
+        return jdbc.queryForObject("EXPLAIN " + sql, String.class, args);
+    }
+}
@@ -0,0 +1,85 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+// runs the Flyway migrations, including db/migration/postgresql, against a real PostgreSQL
+@Testcontainers
+@SpringBootTest(properties = QueryPlanTestSupport.STATEMENT_INSPECTOR)
+@ActiveProfiles("test")
+class ReservationQueryPlanPostgresIT extends QueryPlanTestSupport {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", postgres::getJdbcUrl);
+        r.add("spring.datasource.username", postgres::getUsername);
+        r.add("spring.datasource.password", postgres::getPassword);
+        r.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+    }
+
+    @Test
+    void cancellationSweepUsesPartialIndex() {
+        assertThat(sweepPlan()).contains("ix_reservations_pending_bank_transfer");
+    }
+
+    // PostgreSQL's costs favour a sequential scan on small tables, so the sweep's rows are a small share of a larger one
+    @Override
+    int rows() {
+        return 50_000;
+    }
+
+    @Override
+    int pendingEvery() {
+        return 500;
+    }
+
+    @Override
+    void analyze() {
+        jdbc.execute("ANALYZE reservations");
+    }
+
+    // the parameter values are planned as constants, otherwise the partial index predicate cannot be matched
+    @Override
+    String explain(String sql, Object... args) {
+        return jdbc.execute((ConnectionCallback<String>) con -> {
+            try (Statement set = con.createStatement()) {
+                set.execute("SET plan_cache_mode = force_custom_plan");
+            }
+            try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < args.length; i++) {
+                    ps.setObject(i + 1, args[i]);
+                }
+                List<String> lines = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        lines.add(rs.getString(1));
+                    }
+                }
+                return String.join("\n", lines);
+            } finally {
+                try (Statement reset = con.createStatement()) {
+                    reset.execute("RESET plan_cache_mode");
+                }
+            }
+        });
+    }
+}
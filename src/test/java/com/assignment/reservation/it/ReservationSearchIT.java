@@ -0,0 +1,154 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.assignment.reservation.dto.ReservationSearchResponse;
+import com.assignment.reservation.entity.ArchivedReservation;
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+import com.assignment.reservation.repository.ArchivedReservationRepository;
+import com.assignment.reservation.repository.ReservationRepository;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.task.scheduling.enabled=false"
+})
+@ActiveProfiles("test")
+class ReservationSearchIT {
+
+    // a room no other test books, so the filters below only match rows written here
+    static final String ROOM = "SEARCH-1";
+
+    @Autowired
+    TestRestTemplate rest;
+    @Autowired
+    ReservationRepository repo;
+    @Autowired
+    ArchivedReservationRepository archive;
+
+    @BeforeEach
+    void seed() {
+        if (repo.existsById("RSRCH000")) {
+            return;
+        }
+        LocalDate start = LocalDate.now().plusYears(3);
+        List<Reservation> rows = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Reservation r = new Reservation();
+            r.setId("RSRCH%03d".formatted(i));
+            r.setCustomerName(i == 0 ? "Smith, \"Jo\"" : "Guest " + i);
+            r.setRoomNumber(ROOM);
+            r.setStartDate(start.plusDays(i * 3L));
+            r.setEndDate(start.plusDays(i * 3L + 1));
+            r.setRoomSegment(RoomSegment.LARGE);
+            r.setPaymentMode(i % 5 == 0 ? PaymentMode.BANK_TRANSFER : PaymentMode.CASH);
+            r.setStatus(i % 5 == 0 ? ReservationStatus.PENDING_PAYMENT : ReservationStatus.CONFIRMED);
+            r.setAmount(new BigDecimal("99.50"));
+            r.setCurrency("EUR");
+            rows.add(r);
+        }
+        repo.saveAll(rows);
+        // archived stays of the same room, with ids between and after the live ones
+        LocalDate past = LocalDate.now().minusYears(1);
+        archive.saveAll(List.of("RSRCH003A", "RSRCH010A", "RSRCH030").stream()
+                .map(id -> new ArchivedReservation(id, "Archived", ROOM, past, past.plusDays(1), RoomSegment.LARGE,
+                        PaymentMode.CASH, null, new BigDecimal("99.50"), ReservationStatus.CONFIRMED, "EUR", 0L, Instant.now()))
+                .toList());
+    }
+
+    @Test
+    void searchPagesThroughMatchesByKeyset() {
+        List<String> ids = new ArrayList<>();
+        String afterId = "";
+        int pages = 0;
+        do {
+            ReservationSearchResponse page = rest.getForObject(
+                    "/api/reservations?roomNumber={room}&status=CONFIRMED&limit=7&afterId={after}",
+                    ReservationSearchResponse.class, ROOM, afterId);
+            page.items().forEach(r -> ids.add(r.getId()));
+            afterId = page.nextAfterId();
+            pages++;
+        } while (afterId != null);
+
+        assertThat(ids).hasSize(20).isSorted().doesNotHaveDuplicates();
+        assertThat(pages).isEqualTo(3);
+    }
+
+    @Test
+    void searchFiltersByModeAndDateRange() {
+        LocalDate start = LocalDate.now().plusYears(3);
+        ReservationSearchResponse page = rest.getForObject(
+                "/api/reservations?roomNumber={room}&paymentMode=BANK_TRANSFER&from={from}&to={to}",
+                ReservationSearchResponse.class, ROOM, start, start.plusDays(30));
+
+        // stays 0, 5 and 10 start on days 0, 15 and 30
+        assertThat(page.items()).extracting(Reservation::getId).containsExactly("RSRCH000", "RSRCH005", "RSRCH010");
+        assertThat(page.nextAfterId()).isNull();
+    }
+
+    @Test
+    void exportStreamsCsvAndNdjson() {
+        ResponseEntity<String> csv = rest.getForEntity("/api/reservations/export?roomNumber={room}&format=CSV",
+                String.class, ROOM);
+        assertThat(csv.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(csv.getHeaders().getContentType().toString()).startsWith("text/csv");
+        List<String> lines = csv.getBody().lines().toList();
+        assertThat(lines).hasSize(26);
+        assertThat(lines.get(0)).startsWith("id,customerName");
+        assertThat(lines.get(1)).startsWith("RSRCH000,\"Smith, \"\"Jo\"\"\",SEARCH-1,");
+
+        String ndjson = rest.getForObject("/api/reservations/export?roomNumber={room}&status=PENDING_PAYMENT",
+                String.class, ROOM);
+        assertThat(ndjson.lines().filter(l -> !l.isBlank())).hasSize(5)
+                .allSatisfy(l -> assertThat(l).startsWith("{").contains("\"status\":\"PENDING_PAYMENT\""));
+    }
+
+    @Test
+    void searchAndExportIncludeArchivedStaysOnRequest() {
+        List<String> ids = new ArrayList<>();
+        String afterId = "";
+        do {
+            ReservationSearchResponse page = rest.getForObject(
+                    "/api/reservations?roomNumber={room}&status=CONFIRMED&includeArchived=true&limit=7&afterId={after}",
+                    ReservationSearchResponse.class, ROOM, afterId);
+            page.items().forEach(r -> ids.add(r.getId()));
+            afterId = page.nextAfterId();
+        } while (afterId != null);
+
+        assertThat(ids).hasSize(23).isSorted().doesNotHaveDuplicates()
+                .contains("RSRCH003A", "RSRCH010A", "RSRCH030");
+
+        String csv = rest.getForObject("/api/reservations/export?roomNumber={room}&includeArchived=true&format=CSV",
+                String.class, ROOM);
+        List<String> rows = csv.lines().skip(1).map(line -> line.substring(0, line.indexOf(','))).toList();
+        assertThat(rows).hasSize(28).isSorted().contains("RSRCH003A", "RSRCH010A", "RSRCH030");
+
+        // without the flag only the live table is read
+        ReservationSearchResponse live = rest.getForObject(
+                "/api/reservations?roomNumber={room}&status=CONFIRMED&limit=500", ReservationSearchResponse.class, ROOM);
+        assertThat(live.items()).extracting(Reservation::getId).doesNotContain("RSRCH003A", "RSRCH010A", "RSRCH030");
+    }
+
+    @Test
+    void rejectsInvertedDateRange() {
+        ResponseEntity<String> resp = rest.getForEntity("/api/reservations?from=2030-01-10&to=2030-01-01", String.class);
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,116 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.dto.ConfirmReservationRequest;
+import com.assignment.reservation.dto.ReservationStatusChangedEvent;
+import com.assignment.reservation.entity.PaymentMode;
+import com.assignment.reservation.entity.Reservation;
+import com.assignment.reservation.entity.ReservationStatus;
+import com.assignment.reservation.entity.RoomSegment;
+import com.assignment.reservation.exception.RoomUnavailableException;
+import com.assignment.reservation.kafka.AvailabilityIndexRefresher;
+import com.assignment.reservation.repository.ReservationRepository;
+import com.assignment.reservation.service.ReservationService;
+import com.assignment.reservation.service.RoomAvailabilityIndex;
+import com.assignment.reservation.service.RoomInventory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RoomDoubleBookingIT {
+
+    static final LocalDate START = LocalDate.now().plusDays(40);
+
+    @Autowired
+    ReservationService service;
+    @Autowired
+    ReservationRepository repo;
+    @Autowired
+    RoomInventory inventory;
+    @Autowired
+    RoomAvailabilityIndex availabilityIndex;
+    @Autowired
+    AvailabilityIndexRefresher refresher;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    ObjectMapper mapper;
+
+    @Test
+    void stayBookedByAnotherInstanceIsRejectedByTheDatabase() {
+        // written the way another instance would, so this instance's index never hears of it
+        bookElsewhere("RDBL0001", "DBL-1", START, START.plusDays(3));
+        assertThat(availabilityIndex.isAvailable("DBL-1", START, START.plusDays(3))).isTrue();
+
+        assertThatThrownBy(() -> service.confirm(cash("DBL-1", START.plusDays(2), START.plusDays(4))))
+                .isInstanceOf(RoomUnavailableException.class);
+
+        assertThat(repo.findAll()).filteredOn(r -> "DBL-1".equals(r.getRoomNumber())).hasSize(1);
+        // the rolled back attempt has handed its claim in the index back
+        assertThat(availabilityIndex.isAvailable("DBL-1", START.plusDays(4), START.plusDays(4))).isTrue();
+        assertThat(service.confirm(cash("DBL-1", START.plusDays(4), START.plusDays(5))).reservationStatus())
+                .isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    void statusEventsOfOtherInstancesRefreshTheIndex() throws Exception {
+        Reservation r = bookElsewhere("RDBL0002", "DBL-2", START, START.plusDays(1));
+
+        refresher.onStatusChanged(event(r));
+        assertThat(availabilityIndex.isAvailable("DBL-2", START, START)).isFalse();
+
+        r.setStatus(ReservationStatus.CANCELLED);
+        repo.save(r);
+        refresher.onStatusChanged(event(r));
+        assertThat(availabilityIndex.isAvailable("DBL-2", START, START)).isTrue();
+    }
+
+    @Test
+    void catalogueRoomsAreAvailableBeforeTheirFirstBooking() {
+        inventory.register("DBL-NEVER-BOOKED", RoomSegment.EXTRA_LARGE);
+
+        assertThat(service.findAvailableRooms(START, START.plusDays(1), "EXTRA_LARGE").availableRooms())
+                .contains("DBL-NEVER-BOOKED");
+    }
+
+    private Reservation bookElsewhere(String id, String roomNumber, LocalDate start, LocalDate end) {
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setCustomerName("Elsewhere");
+        r.setRoomNumber(roomNumber);
+        r.setStartDate(start);
+        r.setEndDate(end);
+        r.setRoomSegment(RoomSegment.SMALL);
+        r.setPaymentMode(PaymentMode.CASH);
+        r.setAmount(new BigDecimal("100.00"));
+        r.setCurrency("EUR");
+        r.setStatus(ReservationStatus.CONFIRMED);
+        return transactionTemplate.execute(status -> {
+            Reservation saved = repo.save(r);
+            inventory.claim(List.of(saved));
+            return saved;
+        });
+    }
+
+    private String event(Reservation r) throws Exception {
+        return mapper.writeValueAsString(new ReservationStatusChangedEvent(r.getId(), r.getStatus(), Instant.now()));
+    }
+
+    private static ConfirmReservationRequest cash(String roomNumber, LocalDate start, LocalDate end) {
+        return new ConfirmReservationRequest("Guest", roomNumber, start, end, "SMALL", "CASH", null,
+                new BigDecimal("100.00"), "EUR");
+    }
+}
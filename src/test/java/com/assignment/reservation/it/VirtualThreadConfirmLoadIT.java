@@ -0,0 +1,26 @@
+package com.assignment.reservation.it;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "server.tomcat.threads.max=" + ConfirmLoadTestSupport.TOMCAT_THREADS
+})
+@ActiveProfiles("test")
+class VirtualThreadConfirmLoadIT extends ConfirmLoadTestSupport {
+
+    @Test
+    void creditCardConfirmationsAreNotCappedByTomcatPool(TestReporter reporter) throws Exception {
+        LoadResult result = runLoad("virtual-threads", reporter);
+
+        // requests wait on the provider outside the transaction, so neither Tomcat nor Hikari caps them
+        assertThat(result.maxInFlight()).isGreaterThan(TOMCAT_THREADS);
+        // and the tail no longer queues behind the pool: below the floor the platform run must reach
+        assertThat(result.p99Millis()).isLessThan(CAPPED_P99_FLOOR.toMillis());
+    }
+}
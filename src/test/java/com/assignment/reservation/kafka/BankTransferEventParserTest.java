@@ -0,0 +1,50 @@
+package com.assignment.reservation.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.assignment.reservation.dto.BankTransferEvent;
+
+class BankTransferEventParserTest {
+
+    BankTransferEventParser parser = new BankTransferEventParser();
+
+    @Test
+    void readsPaymentAmountAndReservationId() throws Exception {
+        String payload = """
+                {"paymentId":"PAY-1","debtorAccountnumber":"NL001234","amountReceived":"150.00",
+                 "transactionDescription":"1401541457 RABC1234","extra":{"nested":[1,2]}}""";
+
+        BankTransferEvent event = parser.parse(payload);
+
+        assertThat(event).isEqualTo(new BankTransferEvent("PAY-1", "RABC1234", new BigDecimal("150.00")));
+        assertThat(parser.parse(payload.getBytes(StandardCharsets.UTF_8))).isEqualTo(event);
+    }
+
+    @Test
+    void reservationIdIsSecondTokenRegardlessOfWhitespace() throws Exception {
+        assertThat(parser.parse("{\"transactionDescription\":\"  1401541457\\t\\n RABC1234  more\"}").reservationId())
+                .isEqualTo("RABC1234");
+        assertThat(parser.parse("{\"transactionDescription\":\" 1401541457 \"}").reservationId()).isNull();
+        assertThat(parser.parse("{\"transactionDescription\":null}").reservationId()).isNull();
+    }
+
+    @Test
+    void numericAndMissingAmounts() throws Exception {
+        assertThat(parser.parse("{\"amountReceived\":99.5}").amountReceived()).isEqualByComparingTo("99.5");
+        assertThat(parser.parse("{\"paymentId\":\"PAY-2\"}").amountReceived()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void rejectsMalformedPayloads() {
+        assertThatThrownBy(() -> parser.parse("[1,2]")).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> parser.parse("{\"amountReceived\":\"12,50\"}")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> parser.parse("{\"amountReceived\":")).isInstanceOf(IOException.class);
+    }
+}
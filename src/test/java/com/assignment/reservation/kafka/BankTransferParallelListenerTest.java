@@ -0,0 +1,109 @@
+package com.assignment.reservation.kafka;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import com.assignment.reservation.config.KafkaConfig;
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.service.ReservationService;
+
+class BankTransferParallelListenerTest {
+
+    ReservationService service = mock(ReservationService.class);
+    BankTransferDeadLetterPublisher deadLetters = mock(BankTransferDeadLetterPublisher.class);
+    BankTransferParallelListener listener = new BankTransferParallelListener(service, new BankTransferEventParser(),
+            deadLetters, 4);
+
+    @AfterEach
+    void stopWorkers() {
+        listener.shutdown();
+    }
+
+    @Test
+    void eventsOfOneReservationStayInOrder() {
+        when(service.markConfirmedIfAmountMatches(any(), eq("RAAAAAAA"), any())).thenReturn(BankTransferOutcome.PARTIALLY_PAID,
+                BankTransferOutcome.CONFIRMED);
+        when(service.markConfirmedIfAmountMatches(any(), eq("RBBBBBBB"), any())).thenReturn(BankTransferOutcome.CONFIRMED);
+        List<ConsumerRecord<String, String>> records = List.of(
+                record(0, "P1", "RAAAAAAA", "10.00"),
+                record(1, "P2", "RBBBBBBB", "50.00"),
+                record(2, "P3", "RAAAAAAA", "40.00"));
+
+        listener.listen(records);
+
+        InOrder order = inOrder(service);
+        order.verify(service).markConfirmedIfAmountMatches("P1", "RAAAAAAA", new BigDecimal("10.00"));
+        order.verify(service).markConfirmedIfAmountMatches("P3", "RAAAAAAA", new BigDecimal("40.00"));
+        // a partial payment is recorded, not rejected
+        verify(deadLetters, never()).publish(any(), any());
+    }
+
+    @Test
+    void differentReservationsAreAppliedConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(service.markConfirmedIfAmountMatches(any(), any(), any())).thenAnswer(i -> {
+            bothStarted.countDown();
+            // only returns if the other reservation is being applied at the same time
+            assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return BankTransferOutcome.CONFIRMED;
+        });
+
+        listener.listen(List.of(record(0, "P1", "RAAAAAAA", "10.00"), record(1, "P2", "RBBBBBBB", "10.00")));
+
+        assertThat(bothStarted.getCount()).isZero();
+    }
+
+    @Test
+    void failureReportsItsOffsetAndHoldsBackLaterEventsOfThatReservation() {
+        ConcurrentHashMap<String, Boolean> calls = new ConcurrentHashMap<>();
+        when(service.markConfirmedIfAmountMatches(any(), any(), any())).thenAnswer(i -> {
+            String id = i.getArgument(1);
+            calls.put(id + i.<BigDecimal>getArgument(2), true);
+            if (id.equals("RAAAAAAA")) {
+                throw new OptimisticLockingFailureException("kept changing");
+            }
+            return id.equals("RCCCCCCC") ? BankTransferOutcome.NOT_FOUND : BankTransferOutcome.CONFIRMED;
+        });
+        List<ConsumerRecord<String, String>> records = List.of(
+                record(0, "P1", "RCCCCCCC", "10.00"),
+                record(1, "P2", "RAAAAAAA", "10.00"),
+                record(2, "P3", "RBBBBBBB", "10.00"),
+                record(3, "P4", "RAAAAAAA", "20.00"),
+                record(4, "P5", "RCCCCCCC", "30.00"));
+
+        assertThatThrownBy(() -> listener.listen(records))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
+
+        assertThat(calls).doesNotContainKey("RAAAAAAA20.00");
+        // only rejections before the failed event are final, the rest is redelivered
+        verify(deadLetters).publish(eq(records.get(0)), any());
+        verify(deadLetters, never()).publish(eq(records.get(4)), any());
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, String paymentId, String reservationId, String amount) {
+        String payload = """
+                {"paymentId":"%s","debtorAccountnumber":"NL001234","amountReceived":"%s",\
+                "transactionDescription":"1401541457 %s"}""".formatted(paymentId, amount, reservationId);
+        return new ConsumerRecord<>(KafkaConfig.BANK_TRANSFER_TOPIC, 0, offset, null, payload);
+    }
+}
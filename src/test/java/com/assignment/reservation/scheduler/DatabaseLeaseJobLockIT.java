@@ -0,0 +1,123 @@
+package com.assignment.reservation.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.RoomReservationServiceApplication;
+import com.assignment.reservation.repository.SchedulerLeaseRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Two lock instances with different node ids on the same database stand in for two application
+ * instances sharing one H2/Postgres schema; {@link #twoApplicationsShareOneSweep} starts two real
+ * application contexts on one named H2 database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DatabaseLeaseJobLockIT {
+
+    static final Duration LEASE = Duration.ofMinutes(65);
+    static final Instant T0 = Instant.parse("2026-03-01T10:00:00Z");
+
+    @Autowired
+    SchedulerLeaseRepository repo;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    void onlyOneNodeHoldsTheLeaseUntilItExpires() {
+        String job = "lease-it-" + System.nanoTime();
+
+        assertThat(node("node-a", T0).tryAcquire(job)).isTrue();
+        assertThat(node("node-b", T0.plusSeconds(60)).tryAcquire(job)).isFalse();
+
+        // holder renews on its next run
+        assertThat(node("node-a", T0.plus(Duration.ofMinutes(60))).tryAcquire(job)).isTrue();
+        assertThat(node("node-b", T0.plus(Duration.ofMinutes(90))).tryAcquire(job)).isFalse();
+
+        // node-a stops renewing, node-b takes over after expiry
+        Instant afterExpiry = T0.plus(Duration.ofMinutes(60)).plus(LEASE).plusSeconds(1);
+        assertThat(node("node-b", afterExpiry).tryAcquire(job)).isTrue();
+        assertThat(node("node-a", afterExpiry).tryAcquire(job)).isFalse();
+    }
+
+    @Test
+    void twoApplicationsShareOneSweep() throws Exception {
+        String url = "jdbc:h2:mem:lease-two-apps-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        try (ConfigurableApplicationContext a = start("node-a", url);
+             ConfigurableApplicationContext b = start("node-b", url)) {
+            // both schedulers have fired at startup; fire them again at the same moment
+            CountDownLatch go = new CountDownLatch(1);
+            try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+                List<Future<?>> runs = List.of(
+                        pool.submit(() -> sweepAfter(go, a)),
+                        pool.submit(() -> sweepAfter(go, b)));
+                go.countDown();
+                for (Future<?> run : runs) {
+                    run.get(30, TimeUnit.SECONDS);
+                }
+            }
+
+            // a started first and keeps renewing its lease; b never gets to sweep
+            await().during(Duration.ofSeconds(2)).atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+                assertThat(sweeps(a)).isEqualTo(2);
+                assertThat(sweeps(b)).isZero();
+            });
+            assertThat(a.getBean(SchedulerLeaseRepository.class).findById("auto-cancel"))
+                    .hasValueSatisfying(lease -> assertThat(lease.getOwner()).isEqualTo("node-a"));
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String nodeId, String url) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RoomReservationServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "app.scheduler.lock=database",
+                        "app.scheduler.node-id=" + nodeId,
+                        "spring.kafka.listener.auto-startup=false")
+                .run();
+        // the startup run of the sweep, so the order of the two nodes is fixed
+        await().atMost(Duration.ofSeconds(10)).until(() -> context.getBean(SchedulerLeaseRepository.class)
+                .findById("auto-cancel").isPresent());
+        return context;
+    }
+
+    private static Void sweepAfter(CountDownLatch go, ConfigurableApplicationContext context) throws InterruptedException {
+        go.await();
+        context.getBean(AutoCancelScheduler.class).cancelStale();
+        return null;
+    }
+
+    private static long sweeps(ConfigurableApplicationContext context) {
+        Timer sweep = context.getBean(MeterRegistry.class).find("reservation.cancellation.sweep").timer();
+        return sweep == null ? 0 : sweep.count();
+    }
+
+    private DatabaseLeaseJobLock node(String nodeId, Instant now) {
+        return new DatabaseLeaseJobLock(repo, transactionTemplate, nodeId, LEASE, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
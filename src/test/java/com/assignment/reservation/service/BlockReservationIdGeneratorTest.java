@@ -0,0 +1,82 @@
+package com.assignment.reservation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class BlockReservationIdGeneratorTest {
+
+    @Test
+    void concurrentCallers_neverGetTheSameId() throws Exception {
+        int threads = 16;
+        int idsPerThread = 50_000;
+        AtomicInteger allocations = new AtomicInteger();
+        AtomicLong blocks = new AtomicLong();
+        BlockReservationIdGenerator generator = new BlockReservationIdGenerator(() -> {
+            allocations.incrementAndGet();
+            return blocks.getAndIncrement();
+        }, 1000);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+
+        assertThat(ids).hasSize(threads * idsPerThread);
+        assertThat(ids).allMatch(id -> id.matches("R[0-9A-Z]{7}"));
+        // one allocation per 1000 ids, plus at most one racing refill per thread
+        assertThat(allocations.get()).isLessThanOrEqualTo(threads * idsPerThread / 1000 + threads);
+    }
+
+    @Test
+    void generatorsOnDifferentNodes_shareTheSequenceWithoutOverlap() {
+        AtomicLong sharedSequence = new AtomicLong();
+        BlockReservationIdGenerator nodeA = new BlockReservationIdGenerator(sharedSequence::getAndIncrement, 100);
+        BlockReservationIdGenerator nodeB = new BlockReservationIdGenerator(sharedSequence::getAndIncrement, 100);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(nodeA.nextId());
+            ids.add(nodeB.nextId());
+        }
+
+        assertThat(ids).hasSize(20_000);
+    }
+
+    @Test
+    void consecutiveSequenceNumbers_doNotProduceAdjacentIds() {
+        assertThat(BlockReservationIdGenerator.encode(BlockReservationIdGenerator.scramble(0)))
+                .isNotEqualTo(BlockReservationIdGenerator.encode(BlockReservationIdGenerator.scramble(1)));
+        assertThat(BlockReservationIdGenerator.encode(0)).isEqualTo("R0000000");
+        assertThat(BlockReservationIdGenerator.encode(BlockReservationIdGenerator.SPACE - 1)).isEqualTo("RZZZZZZZ");
+    }
+
+    @Test
+    void exhaustedSpace_failsInsteadOfWrapping() {
+        long lastBlock = BlockReservationIdGenerator.SPACE / 1000;
+        BlockReservationIdGenerator generator = new BlockReservationIdGenerator(() -> lastBlock, 1000);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package com.assignment.reservation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.dto.ConfirmReservationRequest;
+import com.assignment.reservation.dto.ConfirmReservationResponse;
+import com.assignment.reservation.exception.IdempotencyConflictException;
+import com.assignment.reservation.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Two store instances on the same database stand in for two application instances: each has its
+ * own in-memory futures, so duplicates can only be matched through the idempotency_keys table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyStoreIT {
+
+    @Autowired
+    IdempotencyKeyRepository repo;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void retryOnAnotherInstance_getsTheFirstResponse() {
+        String key = "idem-it-" + System.nanoTime();
+        ConfirmReservationRequest req = request("IDEM-1");
+
+        ConfirmReservationResponse first = instance().execute(key, req, this::confirm);
+        ConfirmReservationResponse retry = instance().execute(key, req, this::confirm);
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void duplicateOnAnotherInstance_waitsForTheRunningRequest() throws Exception {
+        String key = "idem-it-" + System.nanoTime();
+        ConfirmReservationRequest req = request("IDEM-2");
+        IdempotencyStore a = instance();
+        IdempotencyStore b = instance();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            Future<ConfirmReservationResponse> first = pool.submit(() -> a.execute(key, req, () -> {
+                started.countDown();
+                await(release);
+                return confirm();
+            }));
+            started.await();
+            Future<ConfirmReservationResponse> duplicate = pool.submit(() -> b.execute(key, req, this::confirm));
+            Thread.sleep(200);
+            release.countDown();
+
+            assertThat(duplicate.get()).isEqualTo(first.get());
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void keyReusedOnAnotherInstanceForDifferentRequest_isRejected() {
+        String key = "idem-it-" + System.nanoTime();
+        instance().execute(key, request("IDEM-3"), this::confirm);
+
+        assertThatThrownBy(() -> instance().execute(key, request("IDEM-4"), this::confirm))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedAttempt_releasesTheKeyForAnotherInstance() {
+        String key = "idem-it-" + System.nanoTime();
+        ConfirmReservationRequest req = request("IDEM-5");
+
+        assertThatThrownBy(() -> instance().execute(key, req, () -> {
+            throw new IllegalStateException("provider down");
+        })).isInstanceOf(IllegalStateException.class);
+        ConfirmReservationResponse resp = instance().execute(key, req, this::confirm);
+
+        assertThat(resp.reservationStatus()).isEqualTo("CONFIRMED");
+        assertThat(repo.findById(key)).hasValueSatisfying(row ->
+                assertThat(row.getReservationId()).isEqualTo(resp.reservationId()));
+    }
+
+    private IdempotencyStore instance() {
+        return new IdempotencyStore(repo, transactionTemplate, objectMapper, Duration.ofHours(1), 1000,
+                Duration.ofSeconds(5), Duration.ofMillis(20));
+    }
+
+    private ConfirmReservationResponse confirm() {
+        return new ConfirmReservationResponse("IDEM-R" + executions.incrementAndGet() + "-" + System.nanoTime(), "CONFIRMED");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ConfirmReservationRequest request(String room) {
+        return new ConfirmReservationRequest("Alice", room, LocalDate.now().plusDays(5), LocalDate.now().plusDays(6),
+                "SMALL", "CASH", null, new BigDecimal("100.00"), "EUR");
+    }
+}
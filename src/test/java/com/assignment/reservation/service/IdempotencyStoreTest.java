@@ -0,0 +1,193 @@
+package com.assignment.reservation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.assignment.reservation.dto.ConfirmReservationRequest;
+import com.assignment.reservation.dto.ConfirmReservationResponse;
+import com.assignment.reservation.entity.IdempotencyKey;
+import com.assignment.reservation.exception.IdempotencyConflictException;
+import com.assignment.reservation.exception.PaymentNotConfirmedException;
+import com.assignment.reservation.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Mono;
+
+class IdempotencyStoreTest {
+
+    // the shared table is mocked: every key is claimed by this instance unless a test says otherwise
+    IdempotencyKeyRepository repo = mock(IdempotencyKeyRepository.class);
+    IdempotencyStore store = new IdempotencyStore(repo, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new ObjectMapper().findAndRegisterModules(), Duration.ofMinutes(5), 1000, Duration.ofSeconds(5),
+            Duration.ofMillis(10));
+    AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void retryWithSameKey_returnsFirstResponseWithoutRunningAgain() {
+        ConfirmReservationRequest req = request("101");
+
+        ConfirmReservationResponse first = store.execute("key-1", req, this::confirm);
+        ConfirmReservationResponse retry = store.execute("key-1", req, this::confirm);
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void concurrentDuplicates_waitForTheFirstExecution() throws Exception {
+        ConfirmReservationRequest req = request("102");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(4)) {
+            Future<ConfirmReservationResponse> first = pool.submit(() -> store.execute("key-2", req, () -> {
+                started.countDown();
+                await(release);
+                return confirm();
+            }));
+            started.await();
+            Future<ConfirmReservationResponse> second = pool.submit(() -> store.execute("key-2", req, this::confirm));
+            Future<ConfirmReservationResponse> third = pool.submit(() -> store.execute("key-2", req, this::confirm));
+            release.countDown();
+
+            assertThat(second.get()).isEqualTo(first.get());
+            assertThat(third.get()).isEqualTo(first.get());
+        }
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void failedAttempt_isNotRemembered() {
+        ConfirmReservationRequest req = request("103");
+
+        assertThatThrownBy(() -> store.execute("key-3", req, () -> {
+            throw new PaymentNotConfirmedException("declined");
+        })).isInstanceOf(PaymentNotConfirmedException.class);
+        ConfirmReservationResponse resp = store.execute("key-3", req, this::confirm);
+
+        assertThat(resp.reservationStatus()).isEqualTo("CONFIRMED");
+    }
+
+    @Test
+    void attemptFailingWithError_isNotRemembered() {
+        ConfirmReservationRequest req = request("108");
+
+        assertThatThrownBy(() -> store.execute("key-6", req, () -> {
+            throw new AssertionError("boom");
+        })).isInstanceOf(AssertionError.class);
+        verify(repo).release("key-6");
+        ConfirmReservationResponse resp = store.execute("key-6", req, this::confirm);
+
+        assertThat(resp.reservationStatus()).isEqualTo("CONFIRMED");
+        verify(repo).complete("key-6", resp.reservationId(), "CONFIRMED");
+    }
+
+    @Test
+    void keyAnsweredByAnotherInstance_returnsItsResponse() {
+        ConfirmReservationRequest req = request("109");
+        when(repo.insert(eq("key-7"), anyString(), any(Instant.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repo.findById("key-7")).thenReturn(Optional.of(
+                new IdempotencyKey("key-7", store.digest(req), "R-OTHER", "CONFIRMED", Instant.now())));
+
+        ConfirmReservationResponse resp = store.execute("key-7", req, this::confirm);
+
+        assertThat(resp).isEqualTo(new ConfirmReservationResponse("R-OTHER", "CONFIRMED"));
+        assertThat(executions).hasValue(0);
+        verify(repo, never()).release("key-7");
+    }
+
+    @Test
+    void keyUsedByAnotherInstanceForDifferentRequest_isRejected() {
+        when(repo.insert(eq("key-8"), anyString(), any(Instant.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repo.findById("key-8")).thenReturn(Optional.of(
+                new IdempotencyKey("key-8", store.digest(request("110")), null, null, Instant.now())));
+
+        assertThatThrownBy(() -> store.execute("key-8", request("111"), this::confirm))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void requestsWithSameHashCode_haveDifferentDigests() {
+        // "Aa" and "BB" share a String hash code, so the records hash alike
+        ConfirmReservationRequest first = new ConfirmReservationRequest("Aa", "112", LocalDate.now().plusDays(5),
+                LocalDate.now().plusDays(6), "SMALL", "CASH", null, new BigDecimal("100.00"), "EUR");
+        ConfirmReservationRequest second = new ConfirmReservationRequest("BB", "112", LocalDate.now().plusDays(5),
+                LocalDate.now().plusDays(6), "SMALL", "CASH", null, new BigDecimal("100.00"), "EUR");
+
+        assertThat(first.hashCode()).isEqualTo(second.hashCode());
+        assertThat(store.digest(first)).isNotEqualTo(store.digest(second));
+    }
+
+    @Test
+    void sameKeyForDifferentRequest_isRejected() {
+        store.execute("key-4", request("104"), this::confirm);
+
+        assertThatThrownBy(() -> store.execute("key-4", request("105"), this::confirm))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void asyncRetryWithSameKey_sharesResult() {
+        ConfirmReservationRequest req = request("106");
+
+        ConfirmReservationResponse first = store.executeAsync("key-5", req, () -> Mono.fromSupplier(this::confirm)).block();
+        ConfirmReservationResponse retry = store.executeAsync("key-5", req, () -> Mono.fromSupplier(this::confirm)).block();
+
+        assertThat(retry).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void missingKey_alwaysExecutes() {
+        ConfirmReservationRequest req = request("107");
+
+        store.execute(null, req, this::confirm);
+        store.execute(null, req, this::confirm);
+
+        assertThat(executions).hasValue(2);
+    }
+
+    private ConfirmReservationResponse confirm() {
+        return new ConfirmReservationResponse("R" + executions.incrementAndGet(), "CONFIRMED");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ConfirmReservationRequest request(String room) {
+        return new ConfirmReservationRequest("Alice", room, LocalDate.now().plusDays(5), LocalDate.now().plusDays(6),
+                "SMALL", "CASH", null, new BigDecimal("100.00"), "EUR");
+    }
+}
@@ -0,0 +1,36 @@
+package com.assignment.reservation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class PaymentIdFilterTest {
+
+    @Test
+    void addedIdsAreAlwaysFound() {
+        PaymentIdFilter filter = new PaymentIdFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("PAY-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("PAY-" + i))).isTrue();
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        PaymentIdFilter filter = new PaymentIdFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.add("PAY-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("OTHER-" + i)).count();
+
+        assertThat(falsePositives).isLessThan(2_000);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new PaymentIdFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PaymentIdFilter(1_000, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
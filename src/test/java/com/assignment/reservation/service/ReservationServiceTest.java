@@ -2,27 +2,61 @@ package com.assignment.reservation.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.assignment.reservation.dto.BankTransferEvent;
+import com.assignment.reservation.dto.BankTransferOutcome;
+import com.assignment.reservation.dto.BulkConfirmResult;
+import com.assignment.reservation.dto.CancellationRunResult;
 import com.assignment.reservation.dto.ConfirmReservationRequest;
 import com.assignment.reservation.dto.ConfirmReservationResponse;
 import com.assignment.reservation.dto.PaymentStatusResponse;
+import com.assignment.reservation.dto.ReservationStatusChangedEvent;
+import com.assignment.reservation.entity.ArchivedReservation;
+import com.assignment.reservation.entity.PaymentMode;
 import com.assignment.reservation.entity.Reservation;
 import com.assignment.reservation.entity.ReservationStatus;
 import com.assignment.reservation.exception.PaymentNotConfirmedException;
+import com.assignment.reservation.exception.ReservationNotFoundException;
+import com.assignment.reservation.exception.RoomUnavailableException;
+import com.assignment.reservation.repository.ArchivedReservationRepository;
 import com.assignment.reservation.repository.ReservationRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
 
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
@@ -32,10 +66,34 @@ class ReservationServiceTest {
     ReservationRepository repo;
     @Mock
     CreditCardClient creditCardClient;
+    @Mock
+    TransactionTemplate transactionTemplate;
+    @Spy
+    RoomAvailabilityIndex availabilityIndex = new RoomAvailabilityIndex();
+    @Mock
+    RoomInventory inventory;
+    @Mock
+    ApplicationEventPublisher events;
+    @Spy
+    ReservationIdGenerator idGenerator = new BlockReservationIdGenerator(new AtomicLong()::getAndIncrement, 1000);
+    @Mock
+    ArchivedReservationRepository archive;
+    @Mock
+    PaymentLedger ledger;
+    @Spy
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     @InjectMocks
     ReservationService service; // your service
 
+    @BeforeEach
+    void runTransactionCallbacksInline() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(new SimpleTransactionStatus()));
+    }
+
 
     @Test
     void whenCashPayment_thenReservationConfirmed() {
@@ -56,10 +114,26 @@ class ReservationServiceTest {
 
         assertThat(ReservationStatus.valueOf(resp.reservationStatus())).isEqualTo(ReservationStatus.CONFIRMED);
         verify(repo).save(argThat(r -> r.getStatus() == ReservationStatus.CONFIRMED));
+        assertThat(meterRegistry.get("reservation.confirm").tags("payment.mode", "CASH", "outcome", "CONFIRMED")
+                .timer().count()).isEqualTo(1);
     }
 
 
 
+    @Test
+    void whenConfirmedTwice_thenOneTimerPerModeAndOutcome() {
+        when(repo.save(any(Reservation.class))).thenAnswer(i -> i.getArgument(0));
+
+        service.confirm(new ConfirmReservationRequest("Alice", "108", LocalDate.now().plusDays(5),
+                LocalDate.now().plusDays(6), "SMALL", "cash", null, new BigDecimal("100.00"), "EUR"));
+        service.confirm(new ConfirmReservationRequest("Alice", "109", LocalDate.now().plusDays(5),
+                LocalDate.now().plusDays(6), "SMALL", "CASH", null, new BigDecimal("100.00"), "EUR"));
+
+        assertThat(meterRegistry.find("reservation.confirm").timers()).hasSize(1);
+        assertThat(meterRegistry.get("reservation.confirm").tags("payment.mode", "CASH", "outcome", "CONFIRMED")
+                .timer().count()).isEqualTo(2);
+    }
+
     @Test
     void whenCreditCardRejected_thenThrows() {
         ConfirmReservationRequest req = new ConfirmReservationRequest(
@@ -75,6 +149,265 @@ class ReservationServiceTest {
         assertThatThrownBy(() -> service.confirm(req))
                 .isInstanceOf(PaymentNotConfirmedException.class)
                 .hasMessageContaining("not confirmed"); 
+        assertThat(meterRegistry.get("reservation.confirm")
+                .tags("payment.mode", "CREDIT_CARD", "outcome", "PaymentNotConfirmedException").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void whenCreditCardConfirmedAsync_thenSavedInsideTransaction() {
+        ConfirmReservationRequest req = new ConfirmReservationRequest(
+                "Carol", "103",
+                LocalDate.now().plusDays(4), LocalDate.now().plusDays(5),
+                "MEDIUM",
+                "CREDIT_CARD", "PAY-REF-2",
+                new BigDecimal("80.00"), "EUR");
+
+        when(creditCardClient.getPaymentStatus("PAY-REF-2"))
+                .thenReturn(Mono.just(new PaymentStatusResponse("2026-02-17T10:00:00Z", "CONFIRMED")));
+        when(repo.save(any(Reservation.class))).thenAnswer(i -> i.getArgument(0));
+
+        ConfirmReservationResponse resp = service.confirmAsync(req).block();
+
+        assertThat(resp.reservationStatus()).isEqualTo(ReservationStatus.CONFIRMED.name());
+        verify(transactionTemplate).execute(any());
+    }
+
+    @Test
+    void whenCreditCardRejectedAsync_thenNothingSaved() {
+        ConfirmReservationRequest req = new ConfirmReservationRequest(
+                "Dave", "104",
+                LocalDate.now().plusDays(4), LocalDate.now().plusDays(5),
+                "MEDIUM",
+                "CREDIT_CARD", "PAY-REF-3",
+                new BigDecimal("80.00"), "EUR");
+
+        when(creditCardClient.getPaymentStatus("PAY-REF-3"))
+                .thenReturn(Mono.just(new PaymentStatusResponse("2026-02-17T10:00:00Z", "REJECTED")));
+
+        assertThatThrownBy(() -> service.confirmAsync(req).block())
+                .isInstanceOf(PaymentNotConfirmedException.class);
+        verify(repo, never()).save(any(Reservation.class));
+    }
+
+    @Test
+    void whenRoomAlreadyBooked_thenThrowsWithoutSaving() {
+        when(repo.save(any(Reservation.class))).thenAnswer(i -> i.getArgument(0));
+        service.confirm(new ConfirmReservationRequest(
+                "Erin", "105",
+                LocalDate.now().plusDays(10), LocalDate.now().plusDays(12),
+                "LARGE", "CASH", null,
+                new BigDecimal("300.00"), "EUR"));
+
+        ConfirmReservationRequest overlapping = new ConfirmReservationRequest(
+                "Frank", "105",
+                LocalDate.now().plusDays(12), LocalDate.now().plusDays(14),
+                "LARGE", "CASH", null,
+                new BigDecimal("300.00"), "EUR");
+
+        assertThatThrownBy(() -> service.confirm(overlapping))
+                .isInstanceOf(RoomUnavailableException.class);
+        verify(repo, times(1)).save(any(Reservation.class));
+    }
+
+    @Test
+    void whenBankTransferBatch_thenOneLookupAndOnlyPaidReservationsSaved() {
+        Reservation paid = pendingBankTransfer("RPAID001", "120.00");
+        Reservation underpaid = pendingBankTransfer("RLOW0001", "120.00");
+        Reservation topUp = pendingBankTransfer("RTOP0001", "120.00");
+        when(repo.findAllById(any())).thenReturn(List.of(paid, underpaid, topUp));
+        when(ledger.recordedAmong(any())).thenReturn(new HashSet<>(Set.of("PAY-0")));
+        when(ledger.totalsReceived(any())).thenReturn(new HashMap<>(Map.of("RTOP0001", new BigDecimal("100.00"))));
+        when(repo.bumpVersion(eq("RLOW0001"), any())).thenReturn(1);
+        when(ledger.append(any(), any(), any())).thenReturn(true);
+
+        List<BankTransferOutcome> outcomes = service.applyBankTransfers(List.of(
+                new BankTransferEvent("PAY-1", "RPAID001", new BigDecimal("120.00")),
+                new BankTransferEvent("PAY-2", "RLOW0001", new BigDecimal("20.00")),
+                new BankTransferEvent("PAY-3", "RMISSING", new BigDecimal("99.00")),
+                new BankTransferEvent("PAY-0", "RLOW0001", new BigDecimal("100.00")),
+                new BankTransferEvent("PAY-4", "RTOP0001", new BigDecimal("20.00"))));
+
+        assertThat(outcomes).containsExactly(BankTransferOutcome.CONFIRMED, BankTransferOutcome.PARTIALLY_PAID,
+                BankTransferOutcome.NOT_FOUND, BankTransferOutcome.DUPLICATE, BankTransferOutcome.CONFIRMED);
+        assertThat(paid.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(underpaid.getStatus()).isEqualTo(ReservationStatus.PENDING_PAYMENT);
+        verify(repo, times(1)).findAllById(any());
+        verify(repo).saveAll(List.of(paid, topUp));
+        verify(repo).bumpVersion(eq("RLOW0001"), any());
+        verify(repo, times(1)).bumpVersion(any(), any());
+        verify(ledger, never()).append(eq("PAY-0"), any(), any());
+        verify(ledger, times(3)).append(any(), any(), any());
+    }
+
+    @Test
+    void whenBankTransferCoversAmount_thenConfirmedByConditionalUpdate() {
+        when(repo.findById("RPAID002")).thenReturn(Optional.of(pendingBankTransfer("RPAID002", "120.00")));
+        when(repo.transition("RPAID002", ReservationStatus.PENDING_PAYMENT, ReservationStatus.CONFIRMED)).thenReturn(1);
+        when(ledger.record("PAY-2", "RPAID002", new BigDecimal("70.00"))).thenReturn(true);
+        when(repo.bumpVersion(eq("RPAID002"), any())).thenReturn(1);
+        when(ledger.totalReceived("RPAID002")).thenReturn(new BigDecimal("120.00"));
+
+        BankTransferOutcome outcome = service.markConfirmedIfAmountMatches("PAY-2", "RPAID002", new BigDecimal("70.00"));
+
+        assertThat(outcome).isEqualTo(BankTransferOutcome.CONFIRMED);
+        verify(repo, never()).save(any());
+        verify(events).publishEvent(argThat((Object e) -> e instanceof ReservationStatusChangedEvent changed
+                && changed.status() == ReservationStatus.CONFIRMED));
+    }
+
+    @Test
+    void whenReservationCancelledConcurrently_thenTransferRetriedAndNotApplied() {
+        Reservation cancelled = pendingBankTransfer("RRACE001", "120.00");
+        cancelled.setStatus(ReservationStatus.CANCELLED);
+        when(repo.findById("RRACE001"))
+                .thenReturn(Optional.of(pendingBankTransfer("RRACE001", "120.00")), Optional.of(cancelled));
+        when(repo.transition("RRACE001", ReservationStatus.PENDING_PAYMENT, ReservationStatus.CONFIRMED)).thenReturn(0);
+        when(ledger.record(any(), any(), any())).thenReturn(true);
+        when(repo.bumpVersion(eq("RRACE001"), any())).thenReturn(1);
+        when(ledger.totalReceived("RRACE001")).thenReturn(new BigDecimal("120.00"));
+
+        BankTransferOutcome outcome = service.markConfirmedIfAmountMatches("PAY-RACE", "RRACE001", new BigDecimal("120.00"));
+
+        assertThat(outcome).isEqualTo(BankTransferOutcome.NOT_ELIGIBLE);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(events, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void whenAnotherPaymentRecordedConcurrently_thenRetriedWithTheFreshTotal() {
+        when(repo.findById("RHALF001")).thenReturn(Optional.of(pendingBankTransfer("RHALF001", "100.00")));
+        when(ledger.record("PAY-HALF-2", "RHALF001", new BigDecimal("50.00"))).thenReturn(true);
+        when(repo.bumpVersion(eq("RHALF001"), any())).thenReturn(0, 1);
+        when(ledger.totalReceived("RHALF001")).thenReturn(new BigDecimal("100.00"));
+        when(repo.transition("RHALF001", ReservationStatus.PENDING_PAYMENT, ReservationStatus.CONFIRMED)).thenReturn(1);
+
+        BankTransferOutcome outcome = service.markConfirmedIfAmountMatches("PAY-HALF-2", "RHALF001", new BigDecimal("50.00"));
+
+        assertThat(outcome).isEqualTo(BankTransferOutcome.CONFIRMED);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(ledger, times(1)).totalReceived("RHALF001");
+    }
+
+    @Test
+    void whenPaymentAlreadyRecorded_thenNothingChanges() {
+        when(repo.findById("RDUP0001")).thenReturn(Optional.of(pendingBankTransfer("RDUP0001", "120.00")));
+        when(ledger.record("PAY-DUP", "RDUP0001", new BigDecimal("120.00"))).thenReturn(false);
+
+        BankTransferOutcome outcome = service.markConfirmedIfAmountMatches("PAY-DUP", "RDUP0001", new BigDecimal("120.00"));
+
+        assertThat(outcome).isEqualTo(BankTransferOutcome.DUPLICATE);
+        verify(repo, never()).transition(any(), any(), any());
+        verify(repo, never()).bumpVersion(any(), any());
+        verify(events, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void whenStaleReservationsCancelled_thenProcessedInKeysetChunks() {
+        Reservation a = pendingBankTransfer("RA000001", "10.00");
+        Reservation b = pendingBankTransfer("RB000001", "10.00");
+        Reservation c = pendingBankTransfer("RC000001", "10.00");
+        LocalDate cutoff = LocalDate.now().plusDays(2);
+        when(repo.findByStatusAndPaymentModeAndStartDateBeforeAndIdGreaterThanOrderByIdAsc(
+                ReservationStatus.PENDING_PAYMENT, PaymentMode.BANK_TRANSFER, cutoff, "", Limit.of(2)))
+                .thenReturn(List.of(a, b));
+        when(repo.findByStatusAndPaymentModeAndStartDateBeforeAndIdGreaterThanOrderByIdAsc(
+                ReservationStatus.PENDING_PAYMENT, PaymentMode.BANK_TRANSFER, cutoff, "RB000001", Limit.of(2)))
+                .thenReturn(List.of(c));
+        when(repo.updateStatus(any(), eq(ReservationStatus.PENDING_PAYMENT), eq(ReservationStatus.CANCELLED)))
+                .thenAnswer(i -> i.<List<String>>getArgument(0).size());
+
+        CancellationRunResult result = service.cancelStaleBankTransferReservations(cutoff, 2);
+
+        assertThat(result.scanned()).isEqualTo(3);
+        assertThat(result.cancelled()).isEqualTo(3);
+        verify(repo).updateStatus(List.of("RA000001", "RB000001"), ReservationStatus.PENDING_PAYMENT, ReservationStatus.CANCELLED);
+        verify(repo).updateStatus(List.of("RC000001"), ReservationStatus.PENDING_PAYMENT, ReservationStatus.CANCELLED);
+    }
+
+    @Test
+    void getById_fallsBackToArchive() {
+        ArchivedReservation archived = new ArchivedReservation();
+        archived.setId("RZ000001");
+        archived.setStatus(ReservationStatus.CONFIRMED);
+        when(repo.findById("RZ000001")).thenReturn(Optional.empty());
+        when(archive.findById("RZ000001")).thenReturn(Optional.of(archived));
+
+        Reservation r = service.getById("RZ000001");
+
+        assertThat(r.getId()).isEqualTo("RZ000001");
+        assertThat(r.getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+    }
+
+    @Test
+    void getById_notFoundInEitherTable() {
+        when(repo.findById("RZ000002")).thenReturn(Optional.empty());
+        when(archive.findById("RZ000002")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getById("RZ000002")).isInstanceOf(ReservationNotFoundException.class);
+    }
+
+    @Test
+    void confirmAll_rejectsInvalidAndOverlappingItemsAndSavesTheRest() {
+        LocalDate start = LocalDate.now().plusDays(30);
+        List<ConfirmReservationRequest> requests = List.of(
+                new ConfirmReservationRequest("A", "201", start, start.plusDays(2), "SMALL", "CASH", null, new BigDecimal("10"), "EUR"),
+                // same room, overlapping the first item
+                new ConfirmReservationRequest("B", "201", start.plusDays(1), start.plusDays(3), "SMALL", "CASH", null, new BigDecimal("10"), "EUR"),
+                new ConfirmReservationRequest("", "202", start, start.plusDays(1), "SMALL", "CASH", null, new BigDecimal("10"), "EUR"),
+                new ConfirmReservationRequest("D", "203", start, start.plusDays(1), "SMALL", "BANK_TRANSFER", null, new BigDecimal("10"), "EUR"));
+
+        List<BulkConfirmResult> results = service.confirmAll(requests).collectList().block();
+
+        assertThat(results).extracting(BulkConfirmResult::index, BulkConfirmResult::reservationStatus)
+                .containsExactlyInAnyOrder(tuple(0, "CONFIRMED"), tuple(1, null), tuple(2, null), tuple(3, "PENDING_PAYMENT"));
+        assertThat(results).filteredOn(r -> r.index() == 1).singleElement()
+                .extracting(BulkConfirmResult::error).asString().contains("already booked");
+        verify(repo).saveAll(argThat(saved -> saved instanceof List<?> list && list.size() == 2));
+    }
+
+    @Test
+    void confirmAll_releasesRoomWhenCardIsRejected() {
+        LocalDate start = LocalDate.now().plusDays(40);
+        ConfirmReservationRequest req = new ConfirmReservationRequest("E", "301", start, start.plusDays(1), "SMALL",
+                "CREDIT_CARD", "PAY-REF-B1", new BigDecimal("10"), "EUR");
+        when(creditCardClient.getPaymentStatus("PAY-REF-B1"))
+                .thenReturn(Mono.just(new PaymentStatusResponse("2026-02-17T10:00:00Z", "REJECTED")));
+
+        List<BulkConfirmResult> results = service.confirmAll(List.of(req)).collectList().block();
+
+        assertThat(results).singleElement().satisfies(r -> {
+            assertThat(r.reservationId()).isNull();
+            assertThat(r.error()).contains("not confirmed");
+        });
+        assertThat(availabilityIndex.isAvailable("301", start, start.plusDays(1))).isTrue();
+        verify(repo, never()).saveAll(any());
+    }
+
+    @Test
+    void confirmAll_releasesHeldRoomsWhenCancelled() {
+        LocalDate start = LocalDate.now().plusDays(45);
+        ConfirmReservationRequest card = new ConfirmReservationRequest("F", "302", start, start.plusDays(1), "SMALL",
+                "CREDIT_CARD", "PAY-REF-B2", new BigDecimal("10"), "EUR");
+        ConfirmReservationRequest cash = new ConfirmReservationRequest("G", "303", start, start.plusDays(1), "SMALL",
+                "CASH", null, new BigDecimal("10"), "EUR");
+        // the provider never answers, so the client gives up while both rooms are held
+        when(creditCardClient.getPaymentStatus("PAY-REF-B2")).thenReturn(Mono.never());
+
+        Disposable subscription = service.confirmAll(List.of(card, cash)).subscribe();
+        assertThat(availabilityIndex.isAvailable("302", start, start.plusDays(1))).isFalse();
+        subscription.dispose();
+
+        assertThat(availabilityIndex.isAvailable("302", start, start.plusDays(1))).isTrue();
+        assertThat(availabilityIndex.isAvailable("303", start, start.plusDays(1))).isTrue();
+        verify(repo, never()).saveAll(any());
+    }
+
+    private static Reservation pendingBankTransfer(String id, String amount) {
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setPaymentMode(PaymentMode.BANK_TRANSFER);
+        r.setStatus(ReservationStatus.PENDING_PAYMENT);
+        r.setAmount(new BigDecimal(amount));
+        return r;
     }
 }
-   
\ No newline at end of file